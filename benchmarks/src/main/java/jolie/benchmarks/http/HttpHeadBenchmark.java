@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.benchmarks.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jolie.net.http.HttpHeadBuilder;
+import jolie.net.http.HttpMessage;
+import jolie.net.http.HttpParser;
+import jolie.net.http.HttpUtils;
+
+/**
+ * Parsing and emission of typical HTTP/1.1 request and response heads.
+ *
+ * The {@code emit*StringBuilder} benchmarks reproduce the previous emission strategy (building the head in a
+ * StringBuilder and encoding it at the end) as a baseline for {@link HttpHeadBuilder}.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class HttpHeadBenchmark {
+	private static final byte[] REQUEST = ("POST /api/orders/createOrder?tenant=acme HTTP/1.1\r\n"
+		+ "Host: orders.example.com\r\n"
+		+ "User-Agent: Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko)\r\n"
+		+ "Accept: application/json, text/plain;q=0.9, */*;q=0.8\r\n"
+		+ "Accept-Encoding: gzip, deflate\r\n"
+		+ "Accept-Language: en-US,en;q=0.5\r\n"
+		+ "Content-Type: application/json; charset=utf-8\r\n"
+		+ "Content-Length: 2\r\n"
+		+ "Cookie: session=4f2a9c1e8b7d; theme=dark\r\n"
+		+ "Connection: keep-alive\r\n"
+		+ "X-Request-Id: 2b6c3f9e-1d47-4a8e-9c55-0f3e2d1a7b64\r\n"
+		+ "\r\n"
+		+ "{}").getBytes( StandardCharsets.ISO_8859_1 );
+
+	private static final byte[] RESPONSE = ("HTTP/1.1 200 OK\r\n"
+		+ "Server: Jolie\r\n"
+		+ "X-Jolie-MessageID: 42\r\n"
+		+ "X-Jolie-Operation: createOrder\r\n"
+		+ "X-Jolie-ServicePath: /\r\n"
+		+ "Content-Type: application/json; charset=utf-8\r\n"
+		+ "Cache-Control: max-age=60\r\n"
+		+ "Content-Length: 2\r\n"
+		+ "\r\n"
+		+ "{}").getBytes( StandardCharsets.ISO_8859_1 );
+
+	private final ByteArrayOutputStream sink = new ByteArrayOutputStream( 1024 );
+	private final HttpHeadBuilder headBuilder = new HttpHeadBuilder();
+
+	@Benchmark
+	public void parseRequestHead( Blackhole bh )
+		throws IOException {
+		final HttpMessage message = new HttpParser( new ByteArrayInputStream( REQUEST ) ).parse();
+		// the lookups HttpProtocol performs on every request
+		bh.consume( message.getProperty( "content-type" ) );
+		bh.consume( message.getProperty( "accept-encoding" ) );
+		bh.consume( message.getProperty( "x-jolie-messageid" ) );
+		bh.consume( message );
+	}
+
+	@Benchmark
+	public void parseResponseHead( Blackhole bh )
+		throws IOException {
+		final HttpMessage message = new HttpParser( new ByteArrayInputStream( RESPONSE ) ).parse();
+		bh.consume( message.getProperty( "content-type" ) );
+		bh.consume( message.getProperty( "x-jolie-operation" ) );
+		bh.consume( message.getProperty( "connection" ) );
+		bh.consume( message );
+	}
+
+	private static void appendResponseHead( Appendable head, long messageId, int contentLength )
+		throws IOException {
+		head.append( "HTTP/1.1 " ).append( HttpUtils.getStatusCodeDescription( 200 ) ).append( HttpUtils.CRLF );
+		head.append( "Server: Jolie" ).append( HttpUtils.CRLF );
+		head.append( HttpUtils.Headers.JOLIE_MESSAGE_ID ).append( ": " ).append( Long.toString( messageId ) )
+			.append( HttpUtils.CRLF );
+		head.append( HttpUtils.Headers.JOLIE_OPERATION ).append( ": " ).append( "createOrder" )
+			.append( HttpUtils.CRLF );
+		head.append( HttpUtils.Headers.JOLIE_RESOURCE_PATH ).append( ": " ).append( "/" ).append( HttpUtils.CRLF );
+		head.append( "Content-Type: application/json; charset=utf-8" ).append( HttpUtils.CRLF );
+		head.append( "Content-Length: " ).append( Integer.toString( contentLength ) ).append( HttpUtils.CRLF );
+		head.append( HttpUtils.CRLF );
+	}
+
+	private static void appendRequestHead( Appendable head, int contentLength )
+		throws IOException {
+		head.append( "POST /api/orders/createOrder HTTP/1.1" ).append( HttpUtils.CRLF );
+		head.append( "Host: orders.example.com" ).append( HttpUtils.CRLF );
+		head.append( "Accept-Encoding: gzip, deflate" ).append( HttpUtils.CRLF );
+		head.append( HttpUtils.Headers.JOLIE_OPERATION ).append( ": " ).append( "createOrder" )
+			.append( HttpUtils.CRLF );
+		head.append( "Content-Type: application/json; charset=utf-8" ).append( HttpUtils.CRLF );
+		head.append( "Content-Length: " ).append( Integer.toString( contentLength ) ).append( HttpUtils.CRLF );
+		head.append( HttpUtils.CRLF );
+	}
+
+	@Benchmark
+	public void emitResponseHeadStringBuilder( Blackhole bh )
+		throws IOException {
+		sink.reset();
+		final StringBuilder head = new StringBuilder();
+		appendResponseHead( head, 42L, 1337 );
+		sink.write( head.toString().getBytes( HttpUtils.URL_DECODER_ENC ) );
+		bh.consume( sink );
+	}
+
+	@Benchmark
+	public void emitResponseHead( Blackhole bh )
+		throws IOException {
+		sink.reset();
+		headBuilder.reset();
+		appendResponseHead( headBuilder, 42L, 1337 );
+		headBuilder.writeTo( sink );
+		bh.consume( sink );
+	}
+
+	@Benchmark
+	public void emitRequestHeadStringBuilder( Blackhole bh )
+		throws IOException {
+		sink.reset();
+		final StringBuilder head = new StringBuilder();
+		appendRequestHead( head, 1337 );
+		sink.write( head.toString().getBytes( HttpUtils.URL_DECODER_ENC ) );
+		bh.consume( sink );
+	}
+
+	@Benchmark
+	public void emitRequestHead( Blackhole bh )
+		throws IOException {
+		sink.reset();
+		headBuilder.reset();
+		appendRequestHead( headBuilder, 1337 );
+		headBuilder.writeTo( sink );
+		bh.consume( sink );
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.benchmarks.js;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jolie.js.JsUtils;
+import jolie.runtime.Value;
+import jolie.runtime.typing.Type;
+
+/**
+ * Reading and writing JSON documents of about 1 KB, 100 KB and 50 MB.
+ *
+ * The {@code write*StringBuilder} benchmarks reproduce the previous output strategy of the callers
+ * (building the document in a StringBuilder and encoding it at the end) as a baseline for writing
+ * straight to a stream.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class JsonCodecBenchmark {
+	@Param( { "1024", "102400", "52428800" } )
+	private int documentSize;
+
+	private Value value;
+	private byte[] document;
+	private ByteArrayOutputStream sink;
+
+	@Setup( Level.Trial )
+	public void setup()
+		throws IOException {
+		value = Value.create();
+		final StringBuilder builder = new StringBuilder();
+		int i = 0;
+		do {
+			final Value order = value.getNewChild( "orders" );
+			order.getFirstChild( "id" ).setValue( i );
+			order.getFirstChild( "customer" ).setValue( "Customer \"" + i + "\" æøå" );
+			order.getFirstChild( "total" ).setValue( i * 1.25 );
+			order.getFirstChild( "paid" ).setValue( i % 2 == 0 );
+			for( int j = 0; j < 3; j++ ) {
+				final Value line = order.getNewChild( "lines" );
+				line.getFirstChild( "sku" ).setValue( "SKU-" + i + "-" + j );
+				line.getFirstChild( "quantity" ).setValue( 1L + j );
+			}
+			i++;
+			if( i % 64 == 0 || documentSize <= 1024 ) {
+				builder.setLength( 0 );
+				JsUtils.valueToJsonString( value, true, Type.UNDEFINED, builder );
+			}
+		} while( builder.length() < documentSize );
+		document = builder.toString().getBytes( StandardCharsets.UTF_8 );
+		sink = new ByteArrayOutputStream( document.length + 1024 );
+	}
+
+	@Benchmark
+	public void parse( Blackhole bh )
+		throws IOException {
+		final Value result = Value.create();
+		JsUtils.parseJsonIntoValue(
+			new InputStreamReader( new ByteArrayInputStream( document ), StandardCharsets.UTF_8 ), result, false );
+		bh.consume( result );
+	}
+
+	@Benchmark
+	public void writeStringBuilder( Blackhole bh )
+		throws IOException {
+		sink.reset();
+		final StringBuilder builder = new StringBuilder();
+		JsUtils.valueToJsonString( value, true, Type.UNDEFINED, builder );
+		sink.write( builder.toString().getBytes( StandardCharsets.UTF_8 ) );
+		bh.consume( sink );
+	}
+
+	@Benchmark
+	public void writeStream( Blackhole bh )
+		throws IOException {
+		sink.reset();
+		JsUtils.valueToJson( value, true, Type.UNDEFINED, sink );
+		bh.consume( sink );
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.benchmarks.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+import jolie.runtime.Value;
+import jolie.xml.XmlUtils;
+import jolie.xml.XmlValueReader;
+import jolie.xml.XmlValueWriter;
+
+/**
+ * Converting XML documents of about 100 KB, 10 MB and 50 MB to and from Jolie values, through a DOM
+ * tree (the {@code *Dom} benchmarks, as a baseline) and with the StAX reader and writer of jolie-xml.
+ *
+ * Run with {@code -prof gc} to compare the allocation rate of the two approaches; the DOM benchmarks
+ * also need a heap large enough for the whole tree.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Xmx4g" )
+public class XmlConversionBenchmark {
+	@Param( { "102400", "10485760", "52428800" } )
+	private int documentSize;
+
+	private Value value;
+	private byte[] document;
+	private ByteArrayOutputStream sink;
+	private DocumentBuilder documentBuilder;
+	private Transformer transformer;
+	private XmlValueReader reader;
+
+	@Setup( Level.Trial )
+	public void setup()
+		throws IOException, ParserConfigurationException, TransformerException {
+		final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+		documentBuilderFactory.setNamespaceAware( true );
+		documentBuilder = documentBuilderFactory.newDocumentBuilder();
+		transformer = TransformerFactory.newInstance().newTransformer();
+		reader = new XmlValueReader( true );
+
+		value = Value.create();
+		int i = 0;
+		long size = 0;
+		while( size < documentSize ) {
+			final Value order = value.getNewChild( "order" );
+			order.getFirstChild( "@Attributes" ).getFirstChild( "id" ).setValue( Integer.toString( i ) );
+			order.getFirstChild( "customer" ).setValue( "Customer <" + i + "> æøå" );
+			order.getFirstChild( "total" ).setValue( i * 1.25 );
+			order.getFirstChild( "paid" ).setValue( i % 2 == 0 );
+			for( int j = 0; j < 3; j++ ) {
+				final Value line = order.getNewChild( "line" );
+				line.getFirstChild( "sku" ).setValue( "SKU-" + i + "-" + j );
+				line.getFirstChild( "quantity" ).setValue( 1L + j );
+			}
+			// each order takes about 300 bytes
+			size += 300;
+			i++;
+		}
+		final ByteArrayOutputStream ostream = new ByteArrayOutputStream( documentSize + 1024 );
+		XmlValueWriter.of( ostream, "UTF-8" ).writeDocument( value, "orders" );
+		document = ostream.toByteArray();
+		sink = new ByteArrayOutputStream( document.length + 1024 );
+	}
+
+	@Benchmark
+	public void readDom( Blackhole bh )
+		throws IOException, SAXException {
+		final Document doc = documentBuilder.parse( new ByteArrayInputStream( document ) );
+		final Value result = Value.create();
+		XmlUtils.documentToValue( doc, result, true, false );
+		bh.consume( result );
+	}
+
+	@Benchmark
+	public void readStax( Blackhole bh )
+		throws IOException {
+		final Value result = Value.create();
+		reader.read( new ByteArrayInputStream( document ), null, result, true, false );
+		bh.consume( result );
+	}
+
+	@Benchmark
+	public void writeDom( Blackhole bh )
+		throws TransformerException {
+		sink.reset();
+		final Document doc = documentBuilder.newDocument();
+		XmlUtils.valueToDocument( value, "orders", doc );
+		transformer.transform( new DOMSource( doc ), new StreamResult( sink ) );
+		bh.consume( sink );
+	}
+
+	@Benchmark
+	public void writeStax( Blackhole bh )
+		throws IOException {
+		sink.reset();
+		XmlValueWriter.of( sink, "UTF-8" ).writeDocument( value, "orders" );
+		bh.consume( sink );
+	}
+}
@@ -0,0 +1,2 @@
+@echo off
+jolie %JOLIE_HOME%\tools\wsdl2jolie.ol %*
@@ -22,12 +22,16 @@ package jolie.net;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
@@ -36,21 +40,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import org.w3c.dom.DOMException;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 import jolie.ExecutionThread;
 import jolie.Interpreter;
 import jolie.js.JsUtils;
@@ -58,18 +51,24 @@ import jolie.lang.Constants;
 import jolie.lang.NativeType;
 import jolie.monitoring.events.ProtocolMessageEvent;
 import jolie.net.constants.HttpProtocolConstants;
+import jolie.net.http.HttpHeadBuilder;
+import jolie.net.http.HttpHeaderNames;
 import jolie.net.http.HttpMessage;
 import jolie.net.http.HttpParser;
+import jolie.net.http.HttpResponseCache;
 import jolie.net.http.HttpUtils;
 import jolie.net.http.HttpUtils.ContentTypes;
 import jolie.net.http.HttpUtils.Formats;
 import jolie.net.http.Method;
 import jolie.net.http.MultiPartFormDataParser;
+import jolie.net.http.RecordDispatcher;
+import jolie.net.http.StaticFileServer;
 import jolie.net.http.UnsupportedMethodException;
 import jolie.net.ports.Interface;
 import jolie.net.protocols.CommProtocol;
 import jolie.runtime.ByteArray;
 import jolie.runtime.FaultException;
+import jolie.runtime.InvalidIdException;
 import jolie.runtime.Value;
 import jolie.runtime.ValueVector;
 import jolie.runtime.VariablePath;
@@ -82,7 +81,8 @@ import jolie.tracer.ProtocolTraceAction;
 import jolie.uri.UriUtils;
 import jolie.util.LocationParser;
 import jolie.util.metadata.MetadataKey;
-import jolie.xml.XmlUtils;
+import jolie.xml.XmlValueReader;
+import jolie.xml.XmlValueWriter;
 
 /**
  * HTTP protocol implementation
@@ -93,10 +93,14 @@ import jolie.xml.XmlUtils;
 public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 	private static class ExchangeContext {
 		private MultiPartFormDataParser multiPartFormDataParser = null;
+		private List< MultiPartFormDataParser.Part > multiPartParts = null;
 		private String encoding = null;
 		private String requestFormat = null;
 		private String requestCharset = null;
 		private boolean headRequest = false;
+		private String cacheKey = null;
+		private long cacheTtl = 0;
+		private String ifNoneMatch = null;
 	}
 
 	private static final MetadataKey< ExchangeContext > HTTP_METADATA_KEY =
@@ -105,11 +109,14 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 	private final URI uri;
 	private final boolean inInputPort;
 
-	private final Transformer transformer;
-	private final DocumentBuilder docBuilder;
+	private final XmlValueReader xmlReader;
+	// Reused across messages: sending on a channel is serialised by the channel lock
+	private final HttpHeadBuilder headBuilder = new HttpHeadBuilder();
 
 	private String inputId = null;
 
+	private static final long DEFAULT_CACHE_TTL = 60000L; // ms
+
 	@Override
 	public String name() {
 		return "http";
@@ -124,17 +131,11 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		VariablePath configurationPath,
 		URI uri,
 		boolean inInputPort,
-		TransformerFactory transformerFactory,
-		DocumentBuilder docBuilder )
-		throws TransformerConfigurationException {
+		XmlValueReader xmlReader ) {
 		super( configurationPath );
 		this.uri = uri;
 		this.inInputPort = inInputPort;
-		this.transformer = transformerFactory.newTransformer();
-		this.docBuilder = docBuilder;
-
-		transformer.setOutputProperty( OutputKeys.OMIT_XML_DECLARATION, "yes" );
-		transformer.setOutputProperty( OutputKeys.INDENT, "no" );
+		this.xmlReader = xmlReader;
 	}
 
 	public String getMultipartHeaderForPart( String operationName, String partName ) {
@@ -151,7 +152,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		return null;
 	}
 
-	private void send_appendCookies( CommMessage message, String hostname, StringBuilder headerBuilder ) {
+	private void send_appendCookies( CommMessage message, String hostname, HttpHeadBuilder headerBuilder ) {
 		Value cookieParam = null;
 		if( hasOperationSpecificParameter( message.operationName(), HttpUtils.Parameters.COOKIES ) ) {
 			cookieParam =
@@ -186,7 +187,8 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		}
 	}
 
-	private void send_appendSetCookieHeader( CommMessage message, StringBuilder headerBuilder ) {
+	private boolean send_appendSetCookieHeader( CommMessage message, HttpHeadBuilder headerBuilder ) {
+		boolean appended = false;
 		Value cookieParam = null;
 		if( hasOperationSpecificParameter( message.operationName(), HttpUtils.Parameters.COOKIES ) ) {
 			cookieParam =
@@ -220,12 +222,14 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 					}
 
 					headerBuilder.append( HttpUtils.CRLF );
+					appended = true;
 				}
 			}
 		}
+		return appended;
 	}
 
-	private static void send_appendParsedAlias( String alias, Value value, StringBuilder headerBuilder )
+	private static void send_appendParsedAlias( String alias, Value value, HttpHeadBuilder headerBuilder )
 		throws IOException {
 		int offset = 0;
 		List< String > aliasKeys = new ArrayList<>();
@@ -325,29 +329,17 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 
 		if( Formats.XML.equals( format ) ) {
 			ret.contentType = ContentTypes.TEXT_XML;
-			Document doc = docBuilder.newDocument();
-			Element root = null;
-			try {
-				root = doc.createElement( message.operationName() + ((inInputPort) ? "Response" : "") );
-			} catch( DOMException ex ) { // invalid operation (the operation name just contains the URI path)
-				root = doc.createElement( inInputPort ? "Response" : "Request" );
+			String rootName = message.operationName() + ((inInputPort) ? "Response" : "");
+			if( !XmlValueWriter.isName( rootName ) ) { // invalid operation (the operation name just contains the URI
+														// path)
+				rootName = inInputPort ? "Response" : "Request";
 			}
-			doc.appendChild( root );
+			ByteArrayOutputStream tmpStream = new ByteArrayOutputStream();
+			XmlValueWriter writer = XmlValueWriter.of( tmpStream, charset ).omitXmlDeclaration( true );
 			if( message.isFault() ) {
-				Element faultElement = doc.createElement( message.fault().faultName() );
-				root.appendChild( faultElement );
-				XmlUtils.valueToDocument( message.fault().value(), faultElement, doc );
+				writer.writeDocument( message.fault().value(), rootName, message.fault().faultName() );
 			} else {
-				XmlUtils.valueToDocument( message.value(), root, doc );
-			}
-			Source src = new DOMSource( doc );
-			ByteArrayOutputStream tmpStream = new ByteArrayOutputStream();
-			Result dest = new StreamResult( tmpStream );
-			transformer.setOutputProperty( OutputKeys.ENCODING, charset );
-			try {
-				transformer.transform( src, dest );
-			} catch( TransformerException e ) {
-				throw new IOException( e );
+				writer.writeDocument( message.value(), rootName );
 			}
 			ret.content = new ByteArray( tmpStream.toByteArray() );
 		} else if( Formats.BINARY.equals( format ) ) {
@@ -440,30 +432,55 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 			ret.content = new ByteArray( builder.toString().getBytes( charset ) );
 		} else if( Formats.JSON.equals( format ) ) {
 			ret.contentType = HttpUtils.ContentTypes.APPLICATION_JSON;
-			StringBuilder jsonStringBuilder = new StringBuilder();
 			if( message.isFault() ) {
 				Value error = message.value().getFirstChild( "error" );
 				error.getFirstChild( "code" ).setValue( -32000 );
 				error.getFirstChild( "message" ).setValue( message.fault().faultName() );
 				error.getChildren( "data" ).set( 0, message.fault().value() );
-				JsUtils.faultValueToJsonString( message.value(), sendType, jsonStringBuilder );
+			}
+			if( isUtf8( charset ) ) {
+				// Encode straight to bytes, without an intermediate string
+				final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				if( message.isFault() ) {
+					JsUtils.faultValueToJson( message.value(), sendType, bytes );
+				} else {
+					JsUtils.valueToJson( message.value(), true, sendType, bytes );
+				}
+				ret.content = new ByteArray( bytes.toByteArray() );
 			} else {
-				JsUtils.valueToJsonString( message.value(), true, sendType, jsonStringBuilder );
+				StringBuilder jsonStringBuilder = new StringBuilder();
+				if( message.isFault() ) {
+					JsUtils.faultValueToJsonString( message.value(), sendType, jsonStringBuilder );
+				} else {
+					JsUtils.valueToJsonString( message.value(), true, sendType, jsonStringBuilder );
+				}
+				ret.content = new ByteArray( jsonStringBuilder.toString().getBytes( charset ) );
 			}
-			ret.content = new ByteArray( jsonStringBuilder.toString().getBytes( charset ) );
 		} else if( Formats.NDJSON.equals( format ) ) {
 			ret.contentType = HttpUtils.ContentTypes.APPLICATION_NDJSON;
-			StringBuilder ndJsonStringBuilder = new StringBuilder();
 			if( message.isFault() ) {
 				Value error = message.value().getFirstChild( "error" );
 				error.getFirstChild( "code" ).setValue( -32000 );
 				error.getFirstChild( "message" ).setValue( message.fault().faultName() );
 				error.getChildren( "data" ).set( 0, message.fault().value() );
-				JsUtils.faultValueToJsonString( message.value(), sendType, ndJsonStringBuilder );
+			}
+			if( isUtf8( charset ) ) {
+				final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				if( message.isFault() ) {
+					JsUtils.faultValueToJson( message.value(), sendType, bytes );
+				} else {
+					JsUtils.valueToNdJson( message.value(), true, sendType, bytes );
+				}
+				ret.content = new ByteArray( bytes.toByteArray() );
 			} else {
-				JsUtils.valueToNdJsonString( message.value(), true, sendType, ndJsonStringBuilder );
+				StringBuilder ndJsonStringBuilder = new StringBuilder();
+				if( message.isFault() ) {
+					JsUtils.faultValueToJsonString( message.value(), sendType, ndJsonStringBuilder );
+				} else {
+					JsUtils.valueToNdJsonString( message.value(), true, sendType, ndJsonStringBuilder );
+				}
+				ret.content = new ByteArray( ndJsonStringBuilder.toString().getBytes( charset ) );
 			}
-			ret.content = new ByteArray( ndJsonStringBuilder.toString().getBytes( charset ) );
 		} else if( Formats.RAW.equals( format ) ) {
 			ret.contentType = HttpUtils.ContentTypes.TEXT_PLAIN;
 			if( message.isFault() ) {
@@ -477,7 +494,11 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		return ret;
 	}
 
-	private void send_appendResponseUserHeader( CommMessage message, StringBuilder headerBuilder ) {
+	private static boolean isUtf8( String charset ) {
+		return charset == null || "utf-8".equalsIgnoreCase( charset ) || "utf8".equalsIgnoreCase( charset );
+	}
+
+	private void send_appendResponseUserHeader( CommMessage message, HttpHeadBuilder headerBuilder ) {
 		Value responseHeaderParameters;
 		if( hasOperationSpecificParameter( message.operationName(), HttpUtils.Parameters.RESPONSE_USER ) ) {
 			responseHeaderParameters =
@@ -512,7 +533,13 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		}
 	}
 
-	private void send_appendResponseHeaders( CommMessage message, Type sendType, StringBuilder headerBuilder )
+	/**
+	 * Appends the status line and the response headers.
+	 *
+	 * @return true if the response may be stored in the response cache
+	 */
+	private boolean send_appendResponseHeaders( CommMessage message, Type sendType,
+		HttpHeadBuilder headerBuilder )
 		throws IOException {
 		int statusCode = !message.isFault() // HTTP 200 OK on success and HTTP 500 Internal Server Error on faults
 			? HttpUtils.DEFAULT_STATUS_CODE
@@ -558,7 +585,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 				.append( HttpUtils.CRLF );
 		}
 
-		send_appendSetCookieHeader( message, headerBuilder );
+		final boolean setsCookies = send_appendSetCookieHeader( message, headerBuilder );
 		headerBuilder.append( "Server: Jolie" ).append( HttpUtils.CRLF );
 		StringBuilder cacheControlHeader = new StringBuilder();
 		if( hasParameter( HttpUtils.Parameters.CACHE_CONTROL ) ) {
@@ -570,14 +597,15 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		if( cacheControlHeader.length() > 0 ) {
 			headerBuilder.append( "Cache-Control: " ).append( cacheControlHeader ).append( HttpUtils.CRLF );
 		}
+		return statusCode == 200 && !setsCookies;
 	}
 
-	private static void send_appendRequestMethod( Method method, StringBuilder headerBuilder ) {
+	private static void send_appendRequestMethod( Method method, HttpHeadBuilder headerBuilder ) {
 		headerBuilder.append( method.id() );
 	}
 
 	private void send_appendRequestPath( CommMessage message, Method method, String qsFormat, Type sendType,
-		StringBuilder headerBuilder )
+		HttpHeadBuilder headerBuilder )
 		throws IOException {
 		String path = uri.getRawPath();
 		if( uri.getScheme().equals( "localsocket" ) || path == null || path.isEmpty()
@@ -622,7 +650,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		}
 	}
 
-	private void send_appendParsedTemplate( String template, Value value, StringBuilder headerBuilder )
+	private void send_appendParsedTemplate( String template, Value value, HttpHeadBuilder headerBuilder )
 		throws MalformedURLException {
 		List< String > templateKeys = new ArrayList<>();
 		Map< String, Object > params = new HashMap<>();
@@ -646,7 +674,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 
 	}
 
-	private static void send_appendAuthorizationHeader( CommMessage message, StringBuilder headerBuilder ) {
+	private static void send_appendAuthorizationHeader( CommMessage message, HttpHeadBuilder headerBuilder ) {
 		if( message.value()
 			.hasChildren( jolie.lang.Constants.Predefined.HTTP_BASIC_AUTHENTICATION.token().content() ) ) {
 			Value v = message.value()
@@ -663,7 +691,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		}
 	}
 
-	private void send_appendRequestUserHeader( CommMessage message, StringBuilder headerBuilder ) {
+	private void send_appendRequestUserHeader( CommMessage message, HttpHeadBuilder headerBuilder ) {
 		Value responseHeaderParameters = null;
 		if( hasOperationSpecificParameter( message.operationName(), HttpUtils.Parameters.REQUEST_USER ) ) {
 			responseHeaderParameters =
@@ -690,7 +718,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		}
 	}
 
-	private void send_appendHeader( StringBuilder headerBuilder ) {
+	private void send_appendHeader( HttpHeadBuilder headerBuilder ) {
 		if( hasParameter( HttpUtils.Parameters.ADD_HEADERS ) ) {
 			Value v = getParameterFirstValue( HttpUtils.Parameters.ADD_HEADERS );
 			if( v.hasChildren( "header" ) ) {
@@ -723,7 +751,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 	}
 
 	private void send_appendRequestHeaders( CommMessage message, Method method, String qsFormat, Type sendType,
-		StringBuilder headerBuilder )
+		HttpHeadBuilder headerBuilder )
 		throws IOException {
 		send_appendRequestMethod( method, headerBuilder );
 		headerBuilder.append( ' ' );
@@ -760,7 +788,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		}
 	}
 
-	private void send_operationSpecificHeader( Value value, Value outboundHeaders, StringBuilder headerBuilder ) {
+	private void send_operationSpecificHeader( Value value, Value outboundHeaders, HttpHeadBuilder headerBuilder ) {
 		List< String > headersKeys = new ArrayList<>();
 		outboundHeaders.children().forEach( ( headerName, headerValues ) -> {
 			headerBuilder.append( headerName ).append( ": " )
@@ -776,7 +804,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		HttpUtils.EncodedContent encodedContent,
 		String charset,
 		String requestEncoding,
-		StringBuilder headerBuilder )
+		HttpHeadBuilder headerBuilder )
 		throws IOException {
 		if( !checkBooleanParameter( HttpUtils.Parameters.KEEP_ALIVE, true ) ) {
 			if( inInputPort ) // we may do this only in input (server) mode
@@ -859,7 +887,8 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		}
 	}
 
-	private void send_logDebugInfo( CharSequence header, HttpUtils.EncodedContent encodedContent, String charset )
+	private void send_logDebugInfo( HttpHeadBuilder header, HttpUtils.EncodedContent encodedContent,
+		String charset )
 		throws IOException {
 		if( checkBooleanParameter( HttpUtils.Parameters.DEBUG ) ) {
 			boolean showContent = false;
@@ -868,7 +897,8 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 				showContent = true;
 			}
 			Interpreter.getInstance()
-				.logInfo( HttpUtils.prepareSendDebugString( header, encodedContent, charset, showContent ) );
+				.logInfo(
+					HttpUtils.prepareSendDebugString( header.toString(), encodedContent, charset, showContent ) );
 		}
 	}
 
@@ -882,12 +912,14 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		Type sendType = getSendType( message );
 		boolean headRequestResponse = false;
 		String requestEncoding = null;
+		ExchangeContext cacheContext = null;
 
-		StringBuilder headerBuilder = new StringBuilder();
+		final HttpHeadBuilder headerBuilder = this.headBuilder;
+		headerBuilder.reset();
 
 		if( inInputPort ) {
 			// We're responding to a request
-			send_appendResponseHeaders( message, sendType, headerBuilder );
+			final boolean cacheable = send_appendResponseHeaders( message, sendType, headerBuilder );
 			send_appendResponseUserHeader( message, headerBuilder );
 			send_appendHeader( headerBuilder );
 
@@ -895,6 +927,9 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 				final ExchangeContext requestMessageMetadata = getHttpMetadata( message.originalRequest().get() );
 				headRequestResponse = requestMessageMetadata.headRequest;
 				requestEncoding = requestMessageMetadata.encoding;
+				if( cacheable && requestMessageMetadata.cacheKey != null ) {
+					cacheContext = requestMessageMetadata;
+				}
 			}
 		} else {
 			// We're sending a notification or a solicit
@@ -917,6 +952,11 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		}
 
 		send_appendGenericHeaders( message, encodedContent, charset, requestEncoding, headerBuilder );
+		String etag = null;
+		if( cacheContext != null && encodedContent.content != null ) {
+			etag = HttpResponseCache.etagOf( encodedContent.content.getBytes() );
+			headerBuilder.appendHeader( "ETag", etag );
+		}
 		headerBuilder.append( HttpUtils.CRLF );
 
 		if( Interpreter.getInstance().isMonitoring() ) {
@@ -938,7 +978,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		Interpreter.getInstance().tracer().trace( () -> {
 			try {
 				final String traceMessage =
-					HttpUtils.prepareSendDebugString( headerBuilder, encodedContent, charset, true );
+					HttpUtils.prepareSendDebugString( headerBuilder.toString(), encodedContent, charset, true );
 				return new ProtocolTraceAction( ProtocolTraceAction.Type.HTTP, "HTTP MESSAGE SENT",
 					message.resourcePath(), traceMessage, null );
 			} catch( UnsupportedEncodingException e ) {
@@ -947,7 +987,18 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 			}
 		} );
 
-		ostream.write( headerBuilder.toString().getBytes( HttpUtils.URL_DECODER_ENC ) );
+		if( etag != null ) {
+			final HttpResponseCache cache = responseCache();
+			cache.put( cacheContext.cacheKey, headerBuilder.toByteArray(), encodedContent.content.getBytes(), etag,
+				cacheContext.cacheTtl );
+			if( HttpResponseCache.matches( cacheContext.ifNoneMatch, etag ) ) {
+				cache.writeNotModified( etag, !checkBooleanParameter( HttpUtils.Parameters.KEEP_ALIVE, true ),
+					ostream );
+				return;
+			}
+		}
+
+		headerBuilder.writeTo( ostream );
 		if( encodedContent.content != null && !headRequestResponse ) {
 			ostream.write( encodedContent.content.getBytes() );
 		}
@@ -956,7 +1007,37 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 	@Override
 	public void send( OutputStream ostream, CommMessage message, InputStream istream )
 		throws IOException {
-		HttpUtils.send( ostream, message, istream, inInputPort, channel(), this );
+		pinConfiguration();
+		try {
+			HttpUtils.send( ostream, message, istream, inInputPort, channel(), this );
+		} finally {
+			send_deleteSpoolFiles( message );
+			unpinConfiguration();
+		}
+	}
+
+	/**
+	 * Deletes the files that the multipart parts of a request have been spooled to, once the response
+	 * to the request has been sent. The acknowledgement of a one-way operation is sent before the
+	 * message is processed, so in that case the files are left to the receiving service.
+	 */
+	private void send_deleteSpoolFiles( CommMessage message ) {
+		if( !inInputPort || !message.originalRequest().isPresent() ) {
+			return;
+		}
+		final ExchangeContext requestMetadata = message.originalRequest().get().metadata().get( HTTP_METADATA_KEY );
+		if( requestMetadata == null || requestMetadata.multiPartParts == null ) {
+			return;
+		}
+		if( !message.isFault() && channel().parentPort() != null ) {
+			final OperationTypeDescription opDesc = channel().parentPort()
+				.getOperationTypeDescription( message.operationName(), Constants.ROOT_RESOURCE_PATH );
+			if( opDesc != null && opDesc.asOneWayTypeDescription() != null ) {
+				return;
+			}
+		}
+		MultiPartFormDataParser.deleteSpoolFiles( requestMetadata.multiPartParts );
+		requestMetadata.multiPartParts = null;
 	}
 
 	private void recv_checkForSetCookie( HttpMessage message, Value value )
@@ -1137,7 +1218,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		} else if( ContentTypes.APPLICATION_X_WWW_FORM_URLENCODED.equals( type ) ) {
 			HttpUtils.parseForm( message, decodedMessage.value, charset );
 		} else if( ContentTypes.TEXT_XML.equals( type ) || type.contains( "xml" ) ) {
-			HttpUtils.parseXML( docBuilder, message, decodedMessage.value, charset );
+			HttpUtils.parseXML( xmlReader, message, decodedMessage.value, charset );
 		} else if( ContentTypes.MULTIPART_FORM_DATA.equals( type ) ) {
 			messageMetadata.multiPartFormDataParser = HttpUtils.parseMultiPartFormData( message, decodedMessage.value );
 		} else if( ContentTypes.APPLICATION_OCTET_STREAM.equals( type ) || type.startsWith( "image/" )
@@ -1270,6 +1351,273 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		}
 	}
 
+	/**
+	 * Reads the head of a message, closing the connection if it does not arrive within the time given
+	 * by the headerTimeout parameter (in milliseconds). The connection is closed through the stream the
+	 * parser reads from, which unblocks the parser.
+	 */
+	private HttpMessage recv_parseHead( HttpParser parser, InputStream istream )
+		throws IOException {
+		if( !inInputPort || !hasParameterValue( HttpUtils.Parameters.HEADER_TIMEOUT ) ) {
+			return parser.parseHead();
+		}
+		final long timeout = getParameterFirstValue( HttpUtils.Parameters.HEADER_TIMEOUT ).longValue();
+		final AtomicBoolean timedOut = new AtomicBoolean( false );
+		final Interpreter interpreter = Interpreter.getInstance();
+		final Future< ? > timeoutHandler = interpreter.schedule( () -> {
+			timedOut.set( true );
+			try {
+				istream.close();
+			} catch( IOException e ) {
+				interpreter.logFine( e );
+			}
+		}, timeout );
+		try {
+			return parser.parseHead();
+		} catch( IOException e ) {
+			if( timedOut.get() ) {
+				throw new IOException( "HTTP header not received within " + timeout + " ms", e );
+			}
+			throw e;
+		} finally {
+			timeoutHandler.cancel( false );
+		}
+	}
+
+	/**
+	 * Guesses the operation a message is for from its head only, so that operation-specific parameters
+	 * can be applied before its body is read. Returns null if there is no operation to guess.
+	 */
+	private String recv_peekOperationName( HttpMessage message ) {
+		if( message.isResponse() ) {
+			return inputId;
+		} else if( !inInputPort ) {
+			return null;
+		}
+		final HttpUtils.DecodedMessage scratch = new HttpUtils.DecodedMessage();
+		if( hasParameter( CommProtocol.Parameters.OPERATION_SPECIFIC_CONFIGURATION ) ) {
+			try {
+				recv_templatedOperation( message, scratch );
+			} catch( UnsupportedMethodException e ) {
+				// reported when the message is decoded
+			}
+		}
+		if( scratch.operationName == null ) {
+			String path = HttpUtils.cutBeforeQuerystring( message.requestPath() );
+			if( path.startsWith( "/" ) ) {
+				path = path.substring( 1 );
+			}
+			final int slash = path.indexOf( '/' );
+			scratch.operationName = slash < 0 ? path : path.substring( 0, slash );
+		}
+		return scratch.operationName.isEmpty() ? null : scratch.operationName;
+	}
+
+	/**
+	 * Applies the maxBodySize and maxDecodedBodySize parameters to the body of the given message. For
+	 * requests, the operation-specific values take precedence over the port-wide ones.
+	 */
+	private void recv_setContentLimits( HttpParser parser, HttpMessage message, String operationName ) {
+		if( message.isResponse() ) {
+			operationName = null;
+		}
+		parser.setContentLimits(
+			recv_getLimit( operationName, HttpUtils.Parameters.MAX_BODY_SIZE ),
+			recv_getLimit( operationName, HttpUtils.Parameters.MAX_DECODED_BODY_SIZE ) );
+	}
+
+	private long recv_getLimit( String operationName, String parameterName ) {
+		if( operationName != null && hasOperationSpecificParameter( operationName, parameterName ) ) {
+			return getOperationSpecificParameterFirstValue( operationName, parameterName ).longValue();
+		} else if( hasParameterValue( parameterName ) ) {
+			return getParameterFirstValue( parameterName ).longValue();
+		}
+		return HttpParser.UNLIMITED;
+	}
+
+	/**
+	 * Returns the ndjsonStream parameter that applies to the given message, or null if its body should
+	 * be read as a whole.
+	 */
+	private Value recv_ndJsonStreamConfiguration( HttpMessage message, String operationName ) {
+		if( !message.getPropertyOrEmptyString( HttpHeaderNames.CONTENT_TYPE ).toLowerCase().contains( "ndjson" ) ) {
+			return null;
+		}
+		final Value config;
+		if( operationName != null
+			&& hasOperationSpecificParameter( operationName, HttpUtils.Parameters.NDJSON_STREAM ) ) {
+			config = getOperationSpecificParameterFirstValue( operationName, HttpUtils.Parameters.NDJSON_STREAM );
+		} else if( hasParameter( HttpUtils.Parameters.NDJSON_STREAM ) ) {
+			config = getParameterFirstValue( HttpUtils.Parameters.NDJSON_STREAM );
+		} else {
+			return null;
+		}
+		return config.isDefined() && !config.boolValue() ? null : config;
+	}
+
+	/**
+	 * Delivers the records of an NDJSON body, as they are parsed, to the one-way operation given in the
+	 * ndjsonStream parameter (or to the operation of the message). Received requests are delivered to
+	 * the input port they came from, received responses to the local service.
+	 *
+	 * @return the number of records delivered
+	 */
+	private long recv_streamNdJson( InputStream body, Value config, String operationName, String charset )
+		throws IOException {
+		final String target = config.firstChildOrDefault( "operation", Value::strValue, operationName );
+		if( target == null ) {
+			throw new IOException( "No operation to deliver the records of the NDJSON stream to" );
+		}
+		final Interpreter interpreter = Interpreter.getInstance();
+		final Type recordType;
+		try {
+			recordType = interpreter.getOneWayOperation( target ).requestType();
+		} catch( InvalidIdException e ) {
+			throw new IOException( "The records of an NDJSON stream can only be delivered to a one-way operation, "
+				+ target + " is not one", e );
+		}
+		CommListener listener = null;
+		if( inInputPort && channel().parentInputPort() != null ) {
+			listener = interpreter.commCore().getListenerByInputPortName( channel().parentInputPort().name() );
+		}
+		final RecordDispatcher dispatcher = new RecordDispatcher(
+			listener == null ? interpreter.commCore().getLocalCommChannel()
+				: interpreter.commCore().getLocalCommChannel( listener ),
+			target,
+			config.firstChildOrDefault( "window", Value::intValue, RecordDispatcher.DEFAULT_WINDOW ),
+			interpreter::execute );
+		try {
+			JsUtils.parseNdJson( new InputStreamReader( body, charset ),
+				checkStringParameter( HttpUtils.Parameters.JSON_ENCODING, "strict" ), recordType,
+				dispatcher::dispatch );
+		} catch( IOException | RuntimeException e ) {
+			dispatcher.abort();
+			throw e;
+		}
+		final long count = dispatcher.finish();
+		// If something went wrong, the connection is closed: skip the rest of the body only on success
+		body.close();
+		return count;
+	}
+
+	private void recv_acknowledgeStream( OutputStream ostream )
+		throws IOException {
+		final HttpHeadBuilder headBuilder = new HttpHeadBuilder();
+		headBuilder.append( "HTTP/1.1 " ).append( HttpUtils.getStatusCodeDescription( 200 ) ).crlf();
+		headBuilder.appendHeader( "Server", "Jolie" );
+		headBuilder.appendHeader( "Content-Length", "0" );
+		if( !checkBooleanParameter( HttpUtils.Parameters.KEEP_ALIVE, true ) ) {
+			headBuilder.appendHeader( "Connection", "close" );
+		}
+		headBuilder.crlf();
+		headBuilder.writeTo( ostream );
+		ostream.flush();
+	}
+
+	private StaticFileServer createStaticFileServer() {
+		final Value config = getParameterFirstValue( HttpUtils.Parameters.STATIC_FILES );
+		try {
+			return new StaticFileServer(
+				Paths.get( config.firstChildOrDefault( "directory", Value::strValue, "." ) ),
+				config.firstChildOrDefault( "prefix", Value::strValue, "/" ),
+				config.firstChildOrDefault( "index", Value::strValue, "index.html" ),
+				config.firstChildOrDefault( "precompressed", Value::boolValue, false ),
+				config.hasChildren( "gzipCache" ) ? Paths.get( config.getFirstChild( "gzipCache" ).strValue() ) : null,
+				config.firstChildOrDefault( "hotCacheSize", Value::longValue,
+					StaticFileServer.DEFAULT_HOT_CACHE_CAPACITY ),
+				config.firstChildOrDefault( "hotFileMaxSize", Value::intValue,
+					StaticFileServer.DEFAULT_HOT_FILE_MAX_SIZE ) );
+		} catch( IOException e ) {
+			throw new UncheckedIOException( e );
+		}
+	}
+
+	/**
+	 * Answers a GET or HEAD request with a file from the directory configured in the "static"
+	 * parameter, if the request path refers to one.
+	 *
+	 * @return true if the response has been written to ostream
+	 */
+	private boolean recv_serveStaticFile( HttpMessage message, InputStream istream, OutputStream ostream )
+		throws IOException {
+		final StaticFileServer server;
+		try {
+			server = StaticFileServer.forOwner( channel().parentInputPort(), this::createStaticFileServer );
+		} catch( UncheckedIOException e ) {
+			throw e.getCause();
+		}
+		// Zero-copy transfers are possible only if we are writing on the socket directly (e.g., not over
+		// SSL)
+		WritableByteChannel socket = null;
+		if( channel() instanceof SelectableStreamingCommChannel ) {
+			final SelectableStreamingCommChannel streamingChannel = (SelectableStreamingCommChannel) channel();
+			if( streamingChannel.inputStream() == istream
+				&& streamingChannel.selectableChannel() instanceof WritableByteChannel ) {
+				socket = (WritableByteChannel) streamingChannel.selectableChannel();
+			}
+		}
+		return server.serve( message, ostream, socket,
+			!checkBooleanParameter( HttpUtils.Parameters.KEEP_ALIVE, true ) );
+	}
+
+	private HttpResponseCache responseCache() {
+		return HttpResponseCache.forOwner( channel().parentInputPort(),
+			hasParameterValue( HttpUtils.Parameters.RESPONSE_CACHE_SIZE )
+				? getParameterFirstValue( HttpUtils.Parameters.RESPONSE_CACHE_SIZE ).longValue()
+				: HttpResponseCache.DEFAULT_CAPACITY );
+	}
+
+	/**
+	 * Answers a GET or HEAD request from the response cache, if the requested operation is configured
+	 * to be cached (osc.operation.cache) and a fresh response is available. On a miss, the information
+	 * needed to store the response is recorded in the exchange context.
+	 *
+	 * @return true if the response has been written to ostream
+	 */
+	private boolean recv_serveFromCache( HttpMessage message, String operationName, ExchangeContext messageMetadata,
+		OutputStream ostream )
+		throws IOException {
+		if( !inInputPort || operationName == null || !(message.isGet() || message.isHead())
+			|| !hasOperationSpecificParameter( operationName, HttpUtils.Parameters.CACHE )
+			|| checkBooleanParameter( HttpUtils.Parameters.CONCURRENT )
+			|| message.hasProperty( HttpHeaderNames.AUTHORIZATION ) ) {
+			return false;
+		}
+
+		final Value cacheConfig =
+			getOperationSpecificParameterFirstValue( operationName, HttpUtils.Parameters.CACHE );
+		final StringBuilder key = new StringBuilder( operationName ).append( '\n' ).append( message.requestPath() )
+			.append( '\n' ).append( message.getPropertyOrEmptyString( HttpHeaderNames.ACCEPT_ENCODING ) );
+		if( hasParameter( HttpUtils.Parameters.COOKIES ) ) {
+			key.append( '\n' ).append( message.getPropertyOrEmptyString( HttpHeaderNames.COOKIE ) );
+		}
+		for( Value header : cacheConfig.getChildren( "headers" ) ) {
+			key.append( '\n' ).append( message.getPropertyOrEmptyString( header.strValue().toLowerCase() ) );
+		}
+
+		final HttpResponseCache cache = responseCache();
+		final String ifNoneMatch = message.getProperty( HttpHeaderNames.IF_NONE_MATCH );
+		final HttpResponseCache.Entry entry =
+			message.getPropertyOrEmptyString( HttpHeaderNames.CACHE_CONTROL ).contains( "no-cache" )
+				? null
+				: cache.get( key.toString() );
+		if( entry == null ) {
+			messageMetadata.cacheKey = key.toString();
+			messageMetadata.cacheTtl = cacheConfig.firstChildOrDefault( "ttl", Value::longValue, DEFAULT_CACHE_TTL );
+			messageMetadata.ifNoneMatch = ifNoneMatch;
+			return false;
+		}
+
+		if( HttpResponseCache.matches( ifNoneMatch, entry.etag() ) ) {
+			cache.writeNotModified( entry.etag(), !checkBooleanParameter( HttpUtils.Parameters.KEEP_ALIVE, true ),
+				ostream );
+		} else {
+			HttpResponseCache.write( entry, ostream, message.isHead() );
+		}
+		ostream.flush();
+		return true;
+	}
+
 	private void recv_checkForMultiPartHeaders( ExchangeContext messageMetadata,
 		HttpUtils.DecodedMessage decodedMessage ) {
 		if( messageMetadata.multiPartFormDataParser != null ) {
@@ -1329,7 +1677,46 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 	@Override
 	public CommMessage recv_internal( InputStream istream, OutputStream ostream )
 		throws IOException {
-		HttpMessage message = new HttpParser( istream ).parse();
+		// Input ports limit the heads they receive by default, output ports only if they are configured to
+		HttpParser parser = new HttpParser( istream,
+			hasParameterValue( HttpUtils.Parameters.MAX_HEADER_SIZE )
+				? getIntParameter( HttpUtils.Parameters.MAX_HEADER_SIZE )
+				: inInputPort ? HttpParser.DEFAULT_MAX_HEAD_SIZE : (int) HttpParser.UNLIMITED );
+		if( inInputPort && hasParameterValue( HttpUtils.Parameters.MULTIPART_SPOOL_THRESHOLD ) ) {
+			parser.setMultiPartSpooling(
+				getParameterFirstValue( HttpUtils.Parameters.MULTIPART_SPOOL_THRESHOLD ).longValue(),
+				hasParameterValue( HttpUtils.Parameters.MULTIPART_SPOOL_DIRECTORY )
+					? Paths.get( getStringParameter( HttpUtils.Parameters.MULTIPART_SPOOL_DIRECTORY ) )
+					: null );
+		}
+		HttpMessage message = recv_parseHead( parser, istream );
+		final String peekedOperationName = recv_peekOperationName( message );
+		recv_setContentLimits( parser, message, peekedOperationName );
+		final Value ndJsonStream = recv_ndJsonStreamConfiguration( message, peekedOperationName );
+		final InputStream ndJsonBody;
+		if( ndJsonStream == null ) {
+			ndJsonBody = null;
+			parser.parseBody( message );
+		} else {
+			ndJsonBody = parser.openBody( message );
+		}
+		final CommMessage retVal;
+		try {
+			retVal = recv_decodeMessage( message, peekedOperationName, ndJsonStream, ndJsonBody, istream, ostream );
+		} catch( IOException | RuntimeException e ) {
+			message.deleteSpoolFiles();
+			throw e;
+		}
+		if( retVal == null || retVal instanceof RequestErrorCommMessage ) {
+			// The multipart parts, if any, are not going to be delivered
+			message.deleteSpoolFiles();
+		}
+		return retVal;
+	}
+
+	private CommMessage recv_decodeMessage( HttpMessage message, String peekedOperationName, Value ndJsonStream,
+		InputStream ndJsonBody, InputStream istream, OutputStream ostream )
+		throws IOException {
 		CommMessage retVal;
 		final ExchangeContext messageMetadata = new ExchangeContext();
 		HttpUtils.DecodedMessage decodedMessage = new HttpUtils.DecodedMessage();
@@ -1341,6 +1728,20 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 
 		HttpUtils.recv_checkForChannelClosing( message, channel() );
 
+		if( inInputPort && (message.isGet() || message.isHead())
+			&& hasParameter( HttpUtils.Parameters.STATIC_FILES )
+			&& recv_serveStaticFile( message, istream, ostream ) ) {
+			// The response has been written already: there is no message to deliver
+			return null;
+		}
+
+		if( ndJsonBody != null && !message.isResponse() ) {
+			// The records are delivered as separate messages: there is no message left to deliver
+			recv_streamNdJson( ndJsonBody, ndJsonStream, peekedOperationName, charset );
+			recv_acknowledgeStream( ostream );
+			return null;
+		}
+
 		recv_readJolieHeaders( message, decodedMessage );
 
 		if( checkBooleanParameter( HttpUtils.Parameters.DEBUG ) ) {
@@ -1398,13 +1799,20 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 		/* https://tools.ietf.org/html/rfc7231#section-4.3 */
 		if( !message.isGet() && !message.isHead() ) {
 			// body parsing
-			if( message.size() > 0 ) {
+			if( ndJsonBody != null ) {
+				decodedMessage.value.setValue(
+					recv_streamNdJson( ndJsonBody, ndJsonStream, peekedOperationName, charset ) );
+			} else if( message.size() > 0 || message.multiPartParts() != null ) {
 				recv_parseMessage( message, decodedMessage, contentType, charset, messageMetadata );
 			}
 		}
 
 		if( !message.isResponse() ) {
 			recv_checkDefaultOp( message, decodedMessage );
+			if( recv_serveFromCache( message, decodedMessage.operationName, messageMetadata, ostream ) ) {
+				// The response has been written already: there is no message to deliver
+				return null;
+			}
 		}
 
 		if( message.isResponse() ) {
@@ -1514,6 +1922,7 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 			}
 		}
 
+		messageMetadata.multiPartParts = message.multiPartParts();
 		retVal.metadata().put( HTTP_METADATA_KEY, messageMetadata );
 		return retVal;
 	}
@@ -1521,7 +1930,12 @@ public class HttpProtocol extends CommProtocol implements HttpUtils.Protocol {
 	@Override
 	public CommMessage recv( InputStream istream, OutputStream ostream )
 		throws IOException {
-		return HttpUtils.recv( istream, ostream, inInputPort, channel(), this );
+		pinConfiguration();
+		try {
+			return HttpUtils.recv( istream, ostream, inInputPort, channel(), this );
+		} finally {
+			unpinConfiguration();
+		}
 	}
 
 	private Type getSendType( CommMessage message )
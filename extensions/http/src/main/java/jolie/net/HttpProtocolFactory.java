@@ -23,59 +23,42 @@ package jolie.net;
 
 import java.io.IOException;
 import java.net.URI;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerFactory;
 import jolie.net.ext.CommProtocolFactory;
 import jolie.net.protocols.CommProtocol;
 import jolie.runtime.AndJarDeps;
 import jolie.runtime.VariablePath;
+import jolie.xml.XmlValueReader;
 
 @AndJarDeps( { "jolie-xml.jar", "jolie-js.jar", "json-simple.jar", "jolie-uri.jar", "handy-uri-templates.jar",
 	"joda-time.jar" } )
 public class HttpProtocolFactory extends CommProtocolFactory {
-	private final TransformerFactory transformerFactory;
-	private final DocumentBuilderFactory docBuilderFactory;
-	private final DocumentBuilder docBuilder;
+	private final XmlValueReader xmlReader;
 
 	public HttpProtocolFactory( CommCore commCore )
 		throws ParserConfigurationException, TransformerConfigurationException {
 		super( commCore );
-		docBuilderFactory = DocumentBuilderFactory.newInstance();
-		docBuilderFactory.setNamespaceAware( true );
-		docBuilder = docBuilderFactory.newDocumentBuilder();
-		transformerFactory = TransformerFactory.newInstance();
+		xmlReader = new XmlValueReader( true );
 	}
 
 	@Override
 	public CommProtocol createInputProtocol( VariablePath configurationPath, URI location )
 		throws IOException {
-		try {
-			return new HttpProtocol(
-				configurationPath,
-				location,
-				true,
-				transformerFactory,
-				docBuilder );
-		} catch( TransformerConfigurationException e ) {
-			throw new IOException( e );
-		}
+		return new HttpProtocol(
+			configurationPath,
+			location,
+			true,
+			xmlReader );
 	}
 
 	@Override
 	public CommProtocol createOutputProtocol( VariablePath configurationPath, URI location )
 		throws IOException {
-		try {
-			return new HttpProtocol(
-				configurationPath,
-				location,
-				false,
-				transformerFactory,
-				docBuilder );
-		} catch( TransformerConfigurationException e ) {
-			throw new IOException( e );
-		}
+		return new HttpProtocol(
+			configurationPath,
+			location,
+			false,
+			xmlReader );
 	}
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.net.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Builds the head of an HTTP message directly as bytes.
+ *
+ * Characters are encoded in UTF-8 as they are appended, so that the head can be written to the
+ * network without first materialising it as a String. A builder can be reused for many messages
+ * through {@link #reset()}.
+ */
+public class HttpHeadBuilder implements Appendable {
+	private static final int DEFAULT_CAPACITY = 512;
+	// Buffers grown beyond this size by an unusually large head are dropped on reset
+	private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+	private byte[] buffer;
+	private int size = 0;
+
+	public HttpHeadBuilder() {
+		this( DEFAULT_CAPACITY );
+	}
+
+	public HttpHeadBuilder( int initialCapacity ) {
+		buffer = new byte[ initialCapacity ];
+	}
+
+	private void ensureCapacity( int additional ) {
+		if( size + additional > buffer.length ) {
+			buffer = Arrays.copyOf( buffer, Math.max( buffer.length * 2, size + additional ) );
+		}
+	}
+
+	@Override
+	public HttpHeadBuilder append( CharSequence s ) {
+		return append( s, 0, s.length() );
+	}
+
+	@Override
+	public HttpHeadBuilder append( CharSequence s, int start, int end ) {
+		ensureCapacity( end - start );
+		for( int i = start; i < end; i++ ) {
+			final char c = s.charAt( i );
+			if( c < 0x80 ) {
+				buffer[ size++ ] = (byte) c;
+			} else if( Character.isHighSurrogate( c ) && i + 1 < end
+				&& Character.isLowSurrogate( s.charAt( i + 1 ) ) ) {
+				appendCodePoint( Character.toCodePoint( c, s.charAt( ++i ) ) );
+				ensureCapacity( end - i );
+			} else {
+				appendCodePoint( c );
+				ensureCapacity( end - i );
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public HttpHeadBuilder append( char c ) {
+		if( c < 0x80 ) {
+			ensureCapacity( 1 );
+			buffer[ size++ ] = (byte) c;
+		} else {
+			appendCodePoint( c );
+		}
+		return this;
+	}
+
+	private void appendCodePoint( int codePoint ) {
+		ensureCapacity( 4 );
+		if( codePoint < 0x800 ) {
+			buffer[ size++ ] = (byte) (0xC0 | (codePoint >> 6));
+			buffer[ size++ ] = (byte) (0x80 | (codePoint & 0x3F));
+		} else if( Character.isSurrogate( (char) codePoint ) && codePoint < 0x10000 ) {
+			// unpaired surrogate, same replacement as String.getBytes
+			buffer[ size++ ] = '?';
+		} else if( codePoint < 0x10000 ) {
+			buffer[ size++ ] = (byte) (0xE0 | (codePoint >> 12));
+			buffer[ size++ ] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+			buffer[ size++ ] = (byte) (0x80 | (codePoint & 0x3F));
+		} else {
+			buffer[ size++ ] = (byte) (0xF0 | (codePoint >> 18));
+			buffer[ size++ ] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+			buffer[ size++ ] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+			buffer[ size++ ] = (byte) (0x80 | (codePoint & 0x3F));
+		}
+	}
+
+	public HttpHeadBuilder append( long n ) {
+		if( n == Long.MIN_VALUE ) {
+			return append( Long.toString( n ) );
+		}
+		ensureCapacity( 20 );
+		if( n < 0 ) {
+			buffer[ size++ ] = '-';
+			n = -n;
+		}
+		final int start = size;
+		do {
+			buffer[ size++ ] = (byte) ('0' + (n % 10));
+			n /= 10;
+		} while( n > 0 );
+		// digits were written least significant first
+		final int digits = size - start;
+		for( int i = 0; i < digits / 2; i++ ) {
+			final int j = size - 1 - i;
+			final byte t = buffer[ start + i ];
+			buffer[ start + i ] = buffer[ j ];
+			buffer[ j ] = t;
+		}
+		return this;
+	}
+
+	public HttpHeadBuilder append( int n ) {
+		return append( (long) n );
+	}
+
+	public HttpHeadBuilder append( byte[] bytes ) {
+		ensureCapacity( bytes.length );
+		System.arraycopy( bytes, 0, buffer, size, bytes.length );
+		size += bytes.length;
+		return this;
+	}
+
+	/**
+	 * Appends a complete header field line, that is {@code name: value CRLF}.
+	 */
+	public HttpHeadBuilder appendHeader( CharSequence name, CharSequence value ) {
+		return append( name ).append( ':' ).append( ' ' ).append( value ).crlf();
+	}
+
+	public HttpHeadBuilder crlf() {
+		ensureCapacity( 2 );
+		buffer[ size++ ] = '\r';
+		buffer[ size++ ] = '\n';
+		return this;
+	}
+
+	public int length() {
+		return size;
+	}
+
+	public void reset() {
+		if( buffer.length > MAX_RETAINED_CAPACITY ) {
+			buffer = new byte[ DEFAULT_CAPACITY ];
+		}
+		size = 0;
+	}
+
+	public void writeTo( OutputStream ostream )
+		throws IOException {
+		ostream.write( buffer, 0, size );
+	}
+
+	public byte[] toByteArray() {
+		return Arrays.copyOf( buffer, size );
+	}
+
+	@Override
+	public String toString() {
+		return new String( buffer, 0, size, StandardCharsets.UTF_8 );
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.net.http;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Interned lower-case names of well-known HTTP header fields.
+ *
+ * {@link HttpParser} resolves header names read from the wire through
+ * {@link #intern(byte[], int, int)}, so that the names of common headers do not cost a new String
+ * for every received message.
+ */
+public final class HttpHeaderNames {
+	public static final String ACCEPT = "accept";
+	public static final String ACCEPT_CHARSET = "accept-charset";
+	public static final String ACCEPT_ENCODING = "accept-encoding";
+	public static final String ACCEPT_LANGUAGE = "accept-language";
+	public static final String AUTHORIZATION = "authorization";
+	public static final String CACHE_CONTROL = "cache-control";
+	public static final String CONNECTION = "connection";
+	public static final String CONTENT_DISPOSITION = "content-disposition";
+	public static final String CONTENT_ENCODING = "content-encoding";
+	public static final String CONTENT_LENGTH = "content-length";
+	public static final String CONTENT_TRANSFER_ENCODING = "content-transfer-encoding";
+	public static final String CONTENT_TYPE = "content-type";
+	public static final String COOKIE = "cookie";
+	public static final String DATE = "date";
+	public static final String ETAG = "etag";
+	public static final String EXPECT = "expect";
+	public static final String HOST = "host";
+	public static final String IF_MODIFIED_SINCE = "if-modified-since";
+	public static final String IF_NONE_MATCH = "if-none-match";
+	public static final String KEEP_ALIVE = "keep-alive";
+	public static final String LAST_MODIFIED = "last-modified";
+	public static final String LOCATION = "location";
+	public static final String ORIGIN = "origin";
+	public static final String PRAGMA = "pragma";
+	public static final String RANGE = "range";
+	public static final String REFERER = "referer";
+	public static final String SERVER = "server";
+	public static final String SET_COOKIE = "set-cookie";
+	public static final String TRANSFER_ENCODING = "transfer-encoding";
+	public static final String UPGRADE = "upgrade";
+	public static final String USER_AGENT = "user-agent";
+	public static final String VARY = "vary";
+	public static final String X_FORWARDED_FOR = "x-forwarded-for";
+	public static final String X_JOLIE_MESSAGE_ID = "x-jolie-messageid";
+	public static final String X_JOLIE_OPERATION = "x-jolie-operation";
+	public static final String X_JOLIE_SERVICE_PATH = "x-jolie-servicepath";
+
+	private static final String[] WELL_KNOWN = {
+		ACCEPT, ACCEPT_CHARSET, ACCEPT_ENCODING, ACCEPT_LANGUAGE, AUTHORIZATION, CACHE_CONTROL, CONNECTION,
+		CONTENT_DISPOSITION, CONTENT_ENCODING, CONTENT_LENGTH, CONTENT_TRANSFER_ENCODING, CONTENT_TYPE, COOKIE,
+		DATE, ETAG, EXPECT, HOST, IF_MODIFIED_SINCE, IF_NONE_MATCH, KEEP_ALIVE, LAST_MODIFIED, LOCATION, ORIGIN,
+		PRAGMA, RANGE, REFERER, SERVER, SET_COOKIE, TRANSFER_ENCODING, UPGRADE, USER_AGENT, VARY, X_FORWARDED_FOR,
+		X_JOLIE_MESSAGE_ID, X_JOLIE_OPERATION, X_JOLIE_SERVICE_PATH
+	};
+
+	// Open-addressing table, kept at most half full
+	private static final int TABLE_SIZE = 128;
+	private static final int TABLE_MASK = TABLE_SIZE - 1;
+	private static final String[] TABLE = new String[ TABLE_SIZE ];
+	private static final byte[][] TABLE_BYTES = new byte[ TABLE_SIZE ][];
+
+	static {
+		for( String name : WELL_KNOWN ) {
+			final byte[] bytes = name.getBytes( StandardCharsets.US_ASCII );
+			int i = hash( bytes, 0, bytes.length ) & TABLE_MASK;
+			while( TABLE[ i ] != null ) {
+				i = (i + 1) & TABLE_MASK;
+			}
+			TABLE[ i ] = name;
+			TABLE_BYTES[ i ] = bytes;
+		}
+	}
+
+	private HttpHeaderNames() {}
+
+	private static int hash( byte[] b, int offset, int length ) {
+		int h = length;
+		for( int i = offset; i < offset + length; i++ ) {
+			h = 31 * h + b[ i ];
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private static boolean equals( byte[] name, byte[] b, int offset, int length ) {
+		if( name.length != length ) {
+			return false;
+		}
+		for( int i = 0; i < length; i++ ) {
+			if( name[ i ] != b[ offset + i ] ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the header name stored in {@code b[offset, offset + length)}, which must already be in
+	 * lower case. Well-known names are returned as the shared constants of this class, without
+	 * allocating.
+	 */
+	public static String intern( byte[] b, int offset, int length ) {
+		int i = hash( b, offset, length ) & TABLE_MASK;
+		while( TABLE[ i ] != null ) {
+			if( equals( TABLE_BYTES[ i ], b, offset, length ) ) {
+				return TABLE[ i ];
+			}
+			i = (i + 1) & TABLE_MASK;
+		}
+		return new String( b, offset, length, StandardCharsets.ISO_8859_1 );
+	}
+}
@@ -21,6 +21,8 @@
 
 package jolie.net.http;
 
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -91,14 +93,47 @@ public class HttpMessage {
 		}
 	}
 
+	/**
+	 * The value of a header field. Values received from the network are kept as a view over the buffer
+	 * the message head was read into, and are decoded only when (and if) somebody asks for them.
+	 */
+	private static class HeaderValue {
+		private final byte[] buffer;
+		private final int offset;
+		private final int length;
+		private String value;
+
+		private HeaderValue( String value ) {
+			this.buffer = null;
+			this.offset = 0;
+			this.length = 0;
+			this.value = value;
+		}
+
+		private HeaderValue( byte[] buffer, int offset, int length ) {
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		private String get() {
+			if( value == null ) {
+				value = new String( buffer, offset, length, StandardCharsets.ISO_8859_1 );
+			}
+			return value;
+		}
+	}
+
 	private Version version;
 	private final Type type;
 	private byte[] content = null;
-	final private Map< String, String > propMap = new HashMap<>();
+	final private Map< String, HeaderValue > propMap = new HashMap<>();
 	final private List< Cookie > setCookies = new ArrayList<>();
 
 	final private Map< String, String > cookies = new HashMap<>();
 
+	private List< MultiPartFormDataParser.Part > multiPartParts = null;
+
 	private int statusCode;
 	private String requestPath;
 	private String reason;
@@ -154,7 +189,10 @@ public class HttpMessage {
 	}
 
 	public Collection< Entry< String, String > > properties() {
-		return propMap.entrySet();
+		final List< Entry< String, String > > properties = new ArrayList<>( propMap.size() );
+		propMap.forEach(
+			( name, value ) -> properties.add( new AbstractMap.SimpleImmutableEntry<>( name, value.get() ) ) );
+		return properties;
 	}
 
 	public void setRequestPath( String path ) {
@@ -166,15 +204,29 @@ public class HttpMessage {
 	}
 
 	public void setProperty( String name, String value ) {
-		propMap.put( name.toLowerCase(), value );
+		propMap.put( name.toLowerCase(), new HeaderValue( value ) );
+	}
+
+	/**
+	 * Sets a property whose value is the ISO-8859-1 text in {@code buffer[offset, offset + length)},
+	 * decoded lazily. The name must already be in lower case and the buffer range must not be modified
+	 * afterwards.
+	 */
+	void setProperty( String name, byte[] buffer, int offset, int length ) {
+		propMap.put( name, new HeaderValue( buffer, offset, length ) );
+	}
+
+	public boolean hasProperty( String name ) {
+		return propMap.containsKey( name.toLowerCase() );
 	}
 
 	public String getProperty( String name ) {
-		return propMap.get( name.toLowerCase() );
+		final HeaderValue value = propMap.get( name.toLowerCase() );
+		return (value == null) ? null : value.get();
 	}
 
 	public String getPropertyOrEmptyString( String name ) {
-		String ret = propMap.get( name.toLowerCase() );
+		final String ret = getProperty( name );
 		return (ret == null) ? "" : ret;
 	}
 
@@ -223,4 +275,24 @@ public class HttpMessage {
 	public byte[] content() {
 		return content;
 	}
+
+	void setMultiPartParts( List< MultiPartFormDataParser.Part > parts ) {
+		this.multiPartParts = parts;
+	}
+
+	/**
+	 * The parts of a multipart/form-data body that has been read while receiving the message instead of
+	 * being buffered in {@link #content()}, or {@code null}.
+	 */
+	public List< MultiPartFormDataParser.Part > multiPartParts() {
+		return multiPartParts;
+	}
+
+	/**
+	 * Deletes the temporary files holding the parts of {@link #multiPartParts()} that have been spooled
+	 * to disk, if any.
+	 */
+	public void deleteSpoolFiles() {
+		MultiPartFormDataParser.deleteSpoolFiles( multiPartParts );
+	}
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.net.http;
+
+import java.io.IOException;
+import jolie.lang.Constants;
+
+/**
+ * Thrown when a received HTTP message exceeds one of the configured size limits. Requests rejected
+ * this way are answered with {@link #statusCode()} and the connection is closed, since the rest of
+ * the message is not read.
+ */
+public class HttpMessageTooLargeException extends IOException {
+	private static final long serialVersionUID = Constants.serialVersionUID();
+
+	public static final int PAYLOAD_TOO_LARGE = 413;
+	public static final int HEADER_FIELDS_TOO_LARGE = 431;
+
+	private final int statusCode;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param message the detail message
+	 * @param statusCode the HTTP status code to respond with (413 or 431)
+	 */
+	public HttpMessageTooLargeException( String message, int statusCode ) {
+		super( message );
+		this.statusCode = statusCode;
+	}
+
+	public int statusCode() {
+		return statusCode;
+	}
+}
@@ -30,48 +30,110 @@ import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.InflaterInputStream;
 
-import jolie.lang.parse.Scanner;
 import jolie.net.ChannelClosingException;
 
+/**
+ * Parser for HTTP/1.x messages.
+ *
+ * The message head is read byte by byte into a single buffer: header names are lower-cased in place
+ * and interned through {@link HttpHeaderNames}, and header values are stored in the resulting
+ * {@link HttpMessage} as views over that buffer, which are decoded only if they are looked up.
+ */
 public class HttpParser {
-	private static final String HTTP = "HTTP";
-	private static final String GET = "GET";
-	private static final String POST = "POST";
-	private static final String PUT = "PUT";
-	private static final String HEAD = "HEAD";
-	private static final String DELETE = "DELETE";
-	// private static final String TRACE = "TRACE";
-	// private static final String CONNECT = "CONNECT";
-	private static final String OPTIONS = "OPTIONS";
-	private static final String PATCH = "PATCH";
+	private static final byte[] HTTP = { 'H', 'T', 'T', 'P', '/' };
+	private static final byte[] VERSION_1_0 = { '1', '.', '0' };
+	private static final byte[] VERSION_1_1 = { '1', '.', '1' };
+	private static final HttpMessage.Type[] REQUEST_TYPES = {
+		HttpMessage.Type.GET, HttpMessage.Type.POST, HttpMessage.Type.PUT, HttpMessage.Type.HEAD,
+		HttpMessage.Type.DELETE, HttpMessage.Type.OPTIONS, HttpMessage.Type.PATCH
+	};
+	private static final byte[][] REQUEST_TYPE_NAMES = new byte[ REQUEST_TYPES.length ][];
+
+	static {
+		for( int i = 0; i < REQUEST_TYPES.length; i++ ) {
+			REQUEST_TYPE_NAMES[ i ] = REQUEST_TYPES[ i ].name().getBytes( StandardCharsets.US_ASCII );
+		}
+	}
 
 	private static final Pattern COOKIES_SPLIT_PATTERN = Pattern.compile( ";" );
 	private static final Pattern COOKIE_NAME_VALUE_SPLIT_PATTERN = Pattern.compile( "=" );
 
-	private final HttpScanner scanner;
-	private Scanner.Token token;
-
-	private void nextToken()
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+	private static final byte SP = ' ';
+	private static final byte HT = '\t';
+
+	private static final int INITIAL_HEAD_SIZE = 512;
+	public static final int DEFAULT_MAX_HEAD_SIZE = 64 * 1024;
+	public static final long UNLIMITED = -1;
+
+	private final InputStream stream;
+	private final int maxHeadSize;
+	private long maxContentSize = UNLIMITED;
+	private long maxDecodedContentSize = UNLIMITED;
+	private long multiPartSpoolThreshold = -1;
+	private Path multiPartSpoolDirectory = null;
+	private byte[] head = new byte[ INITIAL_HEAD_SIZE ];
+	private int headLength = 0;
+
+	/**
+	 * Creates a parser that reads heads of any size.
+	 */
+	public HttpParser( InputStream istream )
 		throws IOException {
-		token = scanner.getToken();
+		this( istream, (int) UNLIMITED );
 	}
 
-	public HttpParser( InputStream istream )
+	/**
+	 * Creates a parser that rejects heads larger than {@code maxHeadSize} bytes with a
+	 * {@link HttpMessageTooLargeException}, or reads heads of any size if it is {@link #UNLIMITED}.
+	 */
+	public HttpParser( InputStream istream, int maxHeadSize )
 		throws IOException {
-		scanner = new HttpScanner( istream );
-		// , URI.create( "urn:network" ) );
+		this.stream = istream;
+		this.maxHeadSize = maxHeadSize;
 	}
 
-	private void tokenAssert( Scanner.TokenType type )
-		throws IOException {
-		if( token.isNot( type ) )
-			throwException();
+	/**
+	 * Makes the parser read multipart/form-data request bodies while receiving them, instead of
+	 * buffering them: parts larger than {@code threshold} bytes are stored in temporary files in
+	 * {@code directory} (or in the default temporary-file directory if it is {@code null}). Only bodies
+	 * with a Content-Length and no Content-Encoding are read this way.
+	 */
+	public void setMultiPartSpooling( long threshold, Path directory ) {
+		this.multiPartSpoolThreshold = threshold;
+		this.multiPartSpoolDirectory = directory;
+	}
+
+	/**
+	 * Limits the size of the message body, as received and after removing its Content-Encoding.
+	 * Messages over a limit are rejected with a {@link HttpMessageTooLargeException} before the excess
+	 * is read. Limits can be changed between {@link #parseHead()} and {@link #parseBody(HttpMessage)}.
+	 *
+	 * @param maxContentSize the maximum body size in bytes, or {@link #UNLIMITED}
+	 * @param maxDecodedContentSize the maximum size of the decoded body in bytes, or {@link #UNLIMITED}
+	 */
+	public void setContentLimits( long maxContentSize, long maxDecodedContentSize ) {
+		this.maxContentSize = maxContentSize;
+		this.maxDecodedContentSize = maxDecodedContentSize;
+	}
+
+	private void checkContentSize( long size )
+		throws HttpMessageTooLargeException {
+		if( maxContentSize >= 0 && size > maxContentSize ) {
+			throw new HttpMessageTooLargeException(
+				"HTTP message body exceeds maximum allowed size (" + maxContentSize + " bytes)",
+				HttpMessageTooLargeException.PAYLOAD_TOO_LARGE );
+		}
 	}
 
 	private void throwException()
@@ -79,25 +141,176 @@ public class HttpParser {
 		throw new IOException( "Malformed HTTP header" );
 	}
 
+	private int read()
+		throws IOException {
+		final int b = stream.read();
+		if( b == -1 ) {
+			throw new EOFException( "Unexpected end of stream while reading the HTTP header" );
+		}
+		return b;
+	}
+
+	private void append( int b )
+		throws IOException {
+		if( headLength == head.length ) {
+			if( maxHeadSize >= 0 && headLength >= maxHeadSize ) {
+				throw new HttpMessageTooLargeException(
+					"HTTP header exceeds maximum allowed size (" + maxHeadSize + " bytes)",
+					HttpMessageTooLargeException.HEADER_FIELDS_TOO_LARGE );
+			}
+			// Values already handed out keep pointing to the old buffer, whose content never changes
+			head = Arrays.copyOf( head,
+				maxHeadSize >= 0 ? Math.min( head.length * 2, maxHeadSize ) : head.length * 2 );
+		}
+		head[ headLength++ ] = (byte) b;
+	}
+
+	private String headString( int offset, int length ) {
+		return new String( head, offset, length, StandardCharsets.ISO_8859_1 );
+	}
+
+	private boolean headEquals( int offset, int length, byte[] expected ) {
+		if( length != expected.length ) {
+			return false;
+		}
+		for( int i = 0; i < length; i++ ) {
+			if( head[ offset + i ] != expected[ i ] ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tells whether the head has the protocol name of a start line at {@code offset}, regardless of
+	 * case.
+	 */
+	private boolean headStartsWithHttp( int offset, int length ) {
+		if( length < HTTP.length ) {
+			return false;
+		}
+		for( int i = 0; i < HTTP.length; i++ ) {
+			if( lowerCase( head[ offset + i ] ) != lowerCase( HTTP[ i ] ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Consumes the LF that must follow a CR.
+	 */
+	private void readLF()
+		throws IOException {
+		if( read() != LF ) {
+			throw new IOException( "malformed CR-LF sequence" );
+		}
+	}
+
+	/**
+	 * Appends bytes to the head until {@code delimiter} or the end of the line, and returns the byte
+	 * that stopped the scan (the delimiter, or LF). The stopping byte is not appended.
+	 */
+	private int appendUntil( byte delimiter )
+		throws IOException {
+		int b;
+		while( (b = read()) != delimiter ) {
+			if( b == CR ) {
+				readLF();
+				return LF;
+			} else if( b == LF ) {
+				return LF;
+			}
+			append( b );
+		}
+		return b;
+	}
+
+	private static int lowerCase( int b ) {
+		return (b >= 'A' && b <= 'Z') ? b + ('a' - 'A') : b;
+	}
+
+	/**
+	 * Consumes the rest of the current line.
+	 */
+	private void skipLine()
+		throws IOException {
+		int b;
+		while( (b = read()) != LF ) {
+			if( b == CR ) {
+				readLF();
+				return;
+			}
+		}
+	}
+
 	private void parseHeaderProperties( HttpMessage message )
 		throws IOException {
-		String name, value;
-		nextToken();
 		HttpMessage.Cookie cookie;
-		while( token.is( Scanner.TokenType.ID ) ) {
-			name = token.content().toLowerCase();
-			nextToken();
-			tokenAssert( Scanner.TokenType.COLON );
-			value = scanner.readLine();
+		int b = read();
+		while( b != LF ) {
+			if( b == CR ) {
+				readLF();
+				return;
+			}
+			if( b == SP || b == HT ) {
+				// a whitespace-led line with no field to continue: consumed without processing, as allowed by
+				// RFC 7230, section 3.2.4
+				skipLine();
+				b = read();
+				continue;
+			}
+			if( b == ':' ) {
+				// empty header name
+				throwException();
+			}
+
+			// header name
+			final int nameOffset = headLength;
+			do {
+				if( b == CR || b == LF || b == SP || b == HT ) {
+					throwException();
+				}
+				append( lowerCase( b ) );
+			} while( (b = read()) != ':' );
+			final String name = HttpHeaderNames.intern( head, nameOffset, headLength - nameOffset );
+
+			// header value, without leading and trailing whitespace; lines folded into it (obs-fold, RFC 7230,
+			// section 3.2.4) are joined to it with a single space
+			final int valueOffset = headLength;
+			int valueEnd = valueOffset;
+			b = read();
+			do {
+				while( b == SP || b == HT ) {
+					b = read();
+				}
+				if( valueEnd > valueOffset && b != CR && b != LF ) {
+					append( SP );
+				}
+				while( b != CR && b != LF ) {
+					append( b );
+					if( b != SP && b != HT ) {
+						valueEnd = headLength;
+					}
+					b = read();
+				}
+				if( b == CR ) {
+					readLF();
+				}
+				// drop the trailing whitespace of the line
+				headLength = valueEnd;
+				b = read();
+			} while( b == SP || b == HT );
+			final int valueLength = valueEnd - valueOffset;
+
 			switch( name ) {
-			case "set-cookie":
-				// cookie = parseSetCookie( value );
-				if( (cookie = parseSetCookie( value )) != null ) {
+			case HttpHeaderNames.SET_COOKIE:
+				if( (cookie = parseSetCookie( headString( valueOffset, valueLength ) )) != null ) {
 					message.addSetCookie( cookie );
 				}
 				break;
-			case "cookie":
-				String[] ss = value.split( ";" );
+			case HttpHeaderNames.COOKIE:
+				String[] ss = headString( valueOffset, valueLength ).split( ";" );
 				for( String s : ss ) {
 					String[] nv = s.trim().split( "=", 2 );
 					if( nv.length > 1 ) {
@@ -105,15 +318,15 @@ public class HttpParser {
 					}
 				}
 				break;
-			case "user-agent":
-				message.setUserAgent( value );
-				message.setProperty( name, value );
+			case HttpHeaderNames.USER_AGENT:
+				final String userAgent = headString( valueOffset, valueLength );
+				message.setUserAgent( userAgent );
+				message.setProperty( name, userAgent );
 				break;
 			default:
-				message.setProperty( name, value );
+				message.setProperty( name, head, valueOffset, valueLength );
 				break;
 			}
-			nextToken();
 		}
 	}
 
@@ -147,7 +360,7 @@ public class HttpParser {
 			}
 			return new HttpMessage.Cookie(
 				nameValue[ 0 ],
-				nameValue[ 1 ],
+				nameValue.length > 1 ? nameValue[ 1 ] : "",
 				domain,
 				path,
 				expires,
@@ -156,78 +369,114 @@ public class HttpParser {
 		return null;
 	}
 
-	private HttpMessage parseRequest()
+	private HttpMessage.Version parseVersion( int offset, int length ) {
+		if( length == HTTP.length + 3 && headStartsWithHttp( offset, length ) ) {
+			if( headEquals( offset + HTTP.length, 3, VERSION_1_1 ) ) {
+				return HttpMessage.Version.HTTP_1_1;
+			} else if( headEquals( offset + HTTP.length, 3, VERSION_1_0 ) ) {
+				return HttpMessage.Version.HTTP_1_0;
+			}
+		}
+		return null;
+	}
+
+	private HttpMessage parseRequest( int methodLength, int stop )
 		throws IOException {
 		HttpMessage message = null;
-		if( token.isKeyword( GET ) ) {
-			message = new HttpMessage( HttpMessage.Type.GET );
-		} else if( token.isKeyword( POST ) ) {
-			message = new HttpMessage( HttpMessage.Type.POST );
-		} else if( token.isKeyword( HEAD ) ) {
-			message = new HttpMessage( HttpMessage.Type.HEAD );
-		} else if( token.isKeyword( DELETE ) ) {
-			message = new HttpMessage( HttpMessage.Type.DELETE );
-		} else if( token.isKeyword( PUT ) ) {
-			message = new HttpMessage( HttpMessage.Type.PUT );
-		} else if( token.isKeyword( PATCH ) ) {
-			message = new HttpMessage( HttpMessage.Type.PATCH );
-		} else if( token.isKeyword( OPTIONS ) ) {
-			message = new HttpMessage( HttpMessage.Type.OPTIONS );
-		} else if( token.is( Scanner.TokenType.EOF ) ) {
-			// It's not a real message, the client is just closing a connection.
-			throw new ChannelClosingException( "[http] Remote host closed connection." );
-		} else {
+		for( int i = 0; i < REQUEST_TYPES.length && message == null; i++ ) {
+			if( headEquals( 0, methodLength, REQUEST_TYPE_NAMES[ i ] ) ) {
+				message = new HttpMessage( REQUEST_TYPES[ i ] );
+			}
+		}
+		if( message == null ) {
 			throw new UnsupportedMethodException( "Unknown/Unsupported HTTP request type: "
-				+ token.content() + "(" + token.type() + ")" );
+				+ headString( 0, methodLength ) );
+		}
+		if( stop != SP ) {
+			throwException();
 		}
 
-		message.setRequestPath( URLDecoder.decode( scanner.readWord(), HttpUtils.URL_DECODER_ENC ) );
-
-		nextToken();
-		if( !token.isKeywordIgnoreCase( HTTP ) )
+		final int pathOffset = headLength;
+		if( appendUntil( SP ) != SP || headLength == pathOffset ) {
 			throw new UnsupportedHttpVersionException( "Invalid HTTP header: expected HTTP version" );
+		}
+		message.setRequestPath( URLDecoder.decode( headString( pathOffset, headLength - pathOffset ),
+			HttpUtils.URL_DECODER_ENC ) );
 
-		if( scanner.currentCharacter() != '/' )
-			throw new UnsupportedHttpVersionException( "Expected HTTP version" );
-
-		String version = scanner.readWord();
-		if( "1.0".equals( version ) )
-			message.setVersion( HttpMessage.Version.HTTP_1_0 );
-		else if( "1.1".equals( version ) )
-			message.setVersion( HttpMessage.Version.HTTP_1_1 );
-		else
-			throw new UnsupportedHttpVersionException( "Unsupported HTTP version specified: " + version );
+		final int versionOffset = headLength;
+		appendUntil( LF );
+		final int versionLength = headLength - versionOffset;
+		if( !headStartsWithHttp( versionOffset, versionLength ) ) {
+			throw new UnsupportedHttpVersionException( "Invalid HTTP header: expected HTTP version" );
+		}
+		final HttpMessage.Version version = parseVersion( versionOffset, versionLength );
+		if( version == null ) {
+			throw new UnsupportedHttpVersionException( "Unsupported HTTP version specified: "
+				+ headString( versionOffset + HTTP.length, versionLength - HTTP.length ) );
+		}
+		message.setVersion( version );
 
 		return message;
 	}
 
-	private HttpMessage parseMessageType()
-		throws IOException {
-		if( token.isKeywordIgnoreCase( HTTP ) ) {
-			return parseResponse();
-		} else {
-			return parseRequest();
-		}
-	}
-
-	private HttpMessage parseResponse()
+	private HttpMessage parseResponse( int versionLength, int stop )
 		throws IOException {
 		HttpMessage message = new HttpMessage( HttpMessage.Type.RESPONSE );
-		if( scanner.currentCharacter() != '/' )
-			throw new IOException( "Expected HTTP version" );
+		final HttpMessage.Version version = parseVersion( 0, versionLength );
+		if( version == null ) {
+			throw new IOException( "Unsupported HTTP version specified: "
+				+ headString( HTTP.length, versionLength - HTTP.length ) );
+		}
+		message.setVersion( version );
+		if( stop != SP ) {
+			throwException();
+		}
 
-		String version = scanner.readWord();
-		if( !("1.1".equals( version ) || "1.0".equals( version )) )
-			throw new IOException( "Unsupported HTTP version specified: " + version );
+		int b;
+		int statusCode = 0;
+		int digits = 0;
+		while( (b = read()) >= '0' && b <= '9' ) {
+			statusCode = statusCode * 10 + (b - '0');
+			digits++;
+		}
+		if( digits == 0 || digits > 3 ) {
+			throwException();
+		}
+		message.setStatusCode( statusCode );
 
-		nextToken();
-		tokenAssert( Scanner.TokenType.INT );
-		message.setStatusCode( Integer.parseInt( token.content() ) );
-		message.setReason( scanner.readLine() );
+		final int reasonOffset = headLength;
+		if( b == CR ) {
+			readLF();
+		} else if( b != LF ) {
+			appendUntil( LF );
+		}
+		message.setReason( headString( reasonOffset, headLength - reasonOffset ).trim() );
 
 		return message;
 	}
 
+	private HttpMessage parseMessageType()
+		throws IOException {
+		int b = stream.read();
+		// RFC 7230, section 3.5: ignore empty lines received before the start line
+		while( b == CR || b == LF ) {
+			b = stream.read();
+		}
+		if( b == -1 ) {
+			// It's not a real message, the client is just closing a connection.
+			throw new ChannelClosingException( "[http] Remote host closed connection." );
+		}
+
+		append( b );
+		final int stop = appendUntil( SP );
+		final int length = headLength;
+		if( length > HTTP.length && headStartsWithHttp( 0, length ) ) {
+			return parseResponse( length, stop );
+		} else {
+			return parseRequest( length, stop );
+		}
+	}
+
 	private static void blockingRead( InputStream stream, byte[] buffer, int offset, int length )
 		throws IOException {
 		int s = 0;
@@ -242,33 +491,98 @@ public class HttpParser {
 
 	private static final int BLOCK_SIZE = 0x1000; // 4K
 
-	private static byte[] readAll( InputStream stream )
+	private static byte[] readAll( InputStream stream, long limit, String what )
 		throws IOException {
 		int r;
 		ByteArrayOutputStream c = new ByteArrayOutputStream();
 		byte[] tmp = new byte[ BLOCK_SIZE ];
 		while( (r = stream.read( tmp, 0, BLOCK_SIZE )) != -1 ) {
+			if( limit >= 0 && c.size() + r > limit ) {
+				throw new HttpMessageTooLargeException(
+					what + " exceeds maximum allowed size (" + limit + " bytes)",
+					HttpMessageTooLargeException.PAYLOAD_TOO_LARGE );
+			}
 			c.write( tmp, 0, r );
-			tmp = new byte[ BLOCK_SIZE ];
 		}
 		return c.toByteArray();
 	}
 
+	/**
+	 * Reads a chunk-size line (RFC 7230, section 4.1), ignoring chunk extensions.
+	 */
+	private int readChunkSize()
+		throws IOException {
+		int size = 0;
+		int digits = 0;
+		int b;
+		while( true ) {
+			b = read();
+			final int digit = Character.digit( b, 16 );
+			if( digit < 0 ) {
+				break;
+			}
+			if( size > (Integer.MAX_VALUE >> 4) ) {
+				throw new IOException( "Illegal chunk size" );
+			}
+			size = (size << 4) + digit;
+			digits++;
+		}
+		if( digits == 0 ) {
+			throw new IOException( "Illegal chunk size" );
+		}
+		// skip chunk extensions up to the end of the line
+		while( b != LF ) {
+			if( b == CR ) {
+				readLF();
+				break;
+			}
+			b = read();
+		}
+		return size;
+	}
+
+	private void readChunkTerminator()
+		throws IOException {
+		final int b = read();
+		if( b == CR ) {
+			readLF();
+		} else if( b != LF ) {
+			throw new IOException( "Missing CR-LF after HTTP chunk" );
+		}
+	}
+
+	/**
+	 * Returns true if the body of a response without Content-Length and Transfer-Encoding extends to
+	 * the end of the connection (RFC 7230, section 3.3.3).
+	 */
+	private static boolean isDelimitedByClose( HttpMessage message ) {
+		final HttpMessage.Version version =
+			(message.version() == null ? HttpMessage.Version.HTTP_1_1 : message.version());
+		return (version.equals( HttpMessage.Version.HTTP_1_1 )
+			&& message.getPropertyOrEmptyString( HttpHeaderNames.CONNECTION ).equalsIgnoreCase( "close" ))
+			|| (version.equals( HttpMessage.Version.HTTP_1_0 )
+				&& !message.getPropertyOrEmptyString( HttpHeaderNames.CONNECTION ).equalsIgnoreCase( "keep-alive" ));
+	}
+
 	private void readContent( HttpMessage message )
 		throws IOException {
 		boolean chunked = false;
 		int contentLength = -1;
 
-		String p = message.getProperty( "transfer-encoding" );
+		String p = message.getProperty( HttpHeaderNames.TRANSFER_ENCODING );
 
 		if( p != null && p.trim().startsWith( "chunked" ) ) {
 			// Transfer-encoding has the precedence over Content-Length
 			chunked = true;
 		} else {
-			p = message.getProperty( "content-length" );
+			p = message.getProperty( HttpHeaderNames.CONTENT_LENGTH );
 			if( p != null && !p.isEmpty() ) {
 				try {
-					contentLength = Integer.parseInt( p );
+					contentLength = Integer.parseInt( p.trim() );
+					if( contentLength < 0 ) {
+						throw new IOException( "Illegal Content-Length value " + p );
+					}
+					checkContentSize( contentLength );
 					if( contentLength == 0 ) {
 						message.setContent( new byte[ 0 ] );
 						return;
@@ -279,31 +593,34 @@ public class HttpParser {
 			}
 		}
 
+		if( contentLength > 0 && multiPartSpoolThreshold >= 0 && !message.isResponse()
+			&& message.getProperty( HttpHeaderNames.CONTENT_ENCODING ) == null ) {
+			p = message.getProperty( HttpHeaderNames.CONTENT_TYPE );
+			if( p != null && p.trim().toLowerCase().startsWith( HttpUtils.ContentTypes.MULTIPART_FORM_DATA ) ) {
+				readMultiPartContent( message, MultiPartFormDataParser.boundaryOf( p ), contentLength );
+				return;
+			}
+		}
+
 		byte[] buffer = null;
-		InputStream stream = scanner.inputStream();
 		if( chunked ) {
 			// Link: http://tools.ietf.org/html/rfc2616#section-3.6.1
 			List< byte[] > chunks = new ArrayList<>();
-			int l = -1, totalLen = 0;
-			scanner.readChar();
+			int l, totalLen = 0;
 			do {
-				// the chunk header contains the size in hex format
-				// and could contain additional parameters which we ignore atm
-				String chunkHeader = scanner.readLine( false );
-				String chunkSize = chunkHeader.split( ";", 2 )[ 0 ];
-				try {
-					l = Integer.parseInt( chunkSize, 16 );
-				} catch( NumberFormatException e ) {
-					throw new IOException( "Illegal chunk size " + chunkSize );
-				}
+				l = readChunkSize();
 				// parses the real chunk with the specified size, follwed by CR-LF
 				if( l > 0 ) {
+					if( (long) totalLen + l > Integer.MAX_VALUE ) {
+						throw new HttpMessageTooLargeException( "HTTP chunked message body is too large",
+							HttpMessageTooLargeException.PAYLOAD_TOO_LARGE );
+					}
+					checkContentSize( (long) totalLen + l );
 					totalLen += l;
 					byte[] chunk = new byte[ l ];
 					blockingRead( stream, chunk, 0, l );
 					chunks.add( chunk );
-					scanner.readChar();
-					scanner.eatSeparators();
+					readChunkTerminator();
 				}
 			} while( l > 0 );
 			// parse optional trailer (additional HTTP headers)
@@ -318,30 +635,20 @@ public class HttpParser {
 			// Per https://tools.ietf.org/html/rfc7230#section-3.3.3 payload may only be sent on *responses*
 			// (including the HTTP version header) when there is NO transfer encoding and NO content length
 			// indication.
-			HttpMessage.Version version =
-				(message.version() == null ? HttpMessage.Version.HTTP_1_1 : message.version());
-
-			if( // Will the connection be closed?
-				// HTTP 1.1
-			(version.equals( HttpMessage.Version.HTTP_1_1 )
-				&&
-				message.getPropertyOrEmptyString( "connection" ).equalsIgnoreCase( "close" ))
-				||
-				// HTTP 1.0
-				(version.equals( HttpMessage.Version.HTTP_1_0 )
-					&&
-					!message.getPropertyOrEmptyString( "connection" ).equalsIgnoreCase( "keep-alive" )) ) {
-				buffer = readAll( scanner.inputStream() );
+			if( isDelimitedByClose( message ) ) {
+				buffer = readAll( stream, maxContentSize, "HTTP message body" );
 			}
 		}
 
 		if( buffer != null ) {
-			p = message.getProperty( "content-encoding" );
+			p = message.getProperty( HttpHeaderNames.CONTENT_ENCODING );
 			if( p != null ) {
 				if( p.contains( "deflate" ) ) {
-					buffer = readAll( new InflaterInputStream( new ByteArrayInputStream( buffer ) ) );
+					buffer = readAll( new InflaterInputStream( new ByteArrayInputStream( buffer ) ),
+						maxDecodedContentSize, "Decoded HTTP message body" );
 				} else if( p.contains( "gzip" ) ) {
-					buffer = readAll( new GZIPInputStream( new ByteArrayInputStream( buffer ) ) );
+					buffer = readAll( new GZIPInputStream( new ByteArrayInputStream( buffer ) ),
+						maxDecodedContentSize, "Decoded HTTP message body" );
 				} else if( !p.equals( "identity" ) ) {
 					throw new UnsupportedEncodingException( "Unrecognized Content-Encoding: " + p );
 				}
@@ -353,13 +660,302 @@ public class HttpParser {
 		}
 	}
 
+	private void readMultiPartContent( HttpMessage message, String boundary, int contentLength )
+		throws IOException {
+		if( boundary == null ) {
+			throw new IOException( "Invalid boundary in multipart/form-data http message" );
+		}
+		final ContentInputStream body = new ContentInputStream( stream, contentLength );
+		message.setMultiPartParts(
+			new MultiPartReader( body, boundary, multiPartSpoolThreshold, multiPartSpoolDirectory ).readParts() );
+		// the epilogue, if any
+		body.skipRemaining();
+		message.setContent( new byte[ 0 ] );
+	}
+
+	/**
+	 * Exposes the chunks of a chunked body as a stream, reading the trailer after the last chunk.
+	 */
+	private class ChunkedInputStream extends InputStream {
+		private final HttpMessage message;
+		private int remaining = 0;
+		private long total = 0;
+		private boolean finished = false;
+
+		private ChunkedInputStream( HttpMessage message ) {
+			this.message = message;
+		}
+
+		@Override
+		public int read()
+			throws IOException {
+			final byte[] b = new byte[ 1 ];
+			return read( b, 0, 1 ) == -1 ? -1 : b[ 0 ] & 0xFF;
+		}
+
+		@Override
+		public int read( byte[] b, int offset, int length )
+			throws IOException {
+			if( finished ) {
+				return -1;
+			}
+			if( remaining == 0 ) {
+				remaining = readChunkSize();
+				if( remaining == 0 ) {
+					finished = true;
+					// optional trailer (additional HTTP headers)
+					parseHeaderProperties( message );
+					return -1;
+				}
+				total += remaining;
+				checkContentSize( total );
+			}
+			final int r = stream.read( b, offset, Math.min( length, remaining ) );
+			if( r == -1 ) {
+				throw new EOFException();
+			}
+			remaining -= r;
+			if( remaining == 0 ) {
+				readChunkTerminator();
+			}
+			return r;
+		}
+	}
+
+	/**
+	 * Fails with a {@link HttpMessageTooLargeException} when more than a given number of bytes are
+	 * read.
+	 */
+	private static class LimitedInputStream extends InputStream {
+		private final InputStream stream;
+		private final long limit;
+		private final String what;
+		private long count = 0;
+
+		private LimitedInputStream( InputStream stream, long limit, String what ) {
+			this.stream = stream;
+			this.limit = limit;
+			this.what = what;
+		}
+
+		@Override
+		public int read()
+			throws IOException {
+			final int b = stream.read();
+			if( b != -1 ) {
+				count( 1 );
+			}
+			return b;
+		}
+
+		@Override
+		public int read( byte[] b, int offset, int length )
+			throws IOException {
+			final int r = stream.read( b, offset, length );
+			if( r > 0 ) {
+				count( r );
+			}
+			return r;
+		}
+
+		private void count( int n )
+			throws HttpMessageTooLargeException {
+			count += n;
+			if( count > limit ) {
+				throw new HttpMessageTooLargeException(
+					what + " exceeds maximum allowed size (" + limit + " bytes)",
+					HttpMessageTooLargeException.PAYLOAD_TOO_LARGE );
+			}
+		}
+	}
+
+	/**
+	 * The decoded body of a message, as returned by {@link #openBody(HttpMessage)}.
+	 */
+	private class BodyInputStream extends InputStream {
+		private final InputStream raw;
+		private final InputStream decoded;
+		private boolean closed = false;
+
+		private BodyInputStream( InputStream raw, InputStream decoded ) {
+			this.raw = raw;
+			this.decoded = decoded;
+		}
+
+		@Override
+		public int read()
+			throws IOException {
+			return closed ? -1 : decoded.read();
+		}
+
+		@Override
+		public int read( byte[] b, int offset, int length )
+			throws IOException {
+			return closed ? -1 : decoded.read( b, offset, length );
+		}
+
+		/**
+		 * Skips what is left of the body, leaving the connection at the beginning of the next message.
+		 */
+		@Override
+		public void close()
+			throws IOException {
+			if( closed ) {
+				return;
+			}
+			closed = true;
+			final byte[] tmp = new byte[ BLOCK_SIZE ];
+			while( raw.read( tmp, 0, tmp.length ) != -1 ) {
+				// discard
+			}
+			eatLineTerminators();
+		}
+	}
+
+	/**
+	 * Exposes the next {@code length} bytes of a stream as a stream of its own.
+	 */
+	private static class ContentInputStream extends InputStream {
+		private final InputStream stream;
+		private long remaining;
+
+		private ContentInputStream( InputStream stream, long length ) {
+			this.stream = stream;
+			this.remaining = length;
+		}
+
+		@Override
+		public int read()
+			throws IOException {
+			if( remaining <= 0 ) {
+				return -1;
+			}
+			final int b = stream.read();
+			if( b == -1 ) {
+				throw new EOFException();
+			}
+			remaining--;
+			return b;
+		}
+
+		@Override
+		public int read( byte[] b, int offset, int length )
+			throws IOException {
+			if( remaining <= 0 ) {
+				return -1;
+			}
+			final int r = stream.read( b, offset, (int) Math.min( length, remaining ) );
+			if( r == -1 ) {
+				throw new EOFException();
+			}
+			remaining -= r;
+			return r;
+		}
+
+		private void skipRemaining()
+			throws IOException {
+			final byte[] tmp = new byte[ BLOCK_SIZE ];
+			while( read( tmp, 0, tmp.length ) != -1 ) {
+				// discard
+			}
+		}
+	}
+
+	/**
+	 * Skips stray line terminators sent after a message body, without blocking and without consuming
+	 * the beginning of a pipelined message.
+	 */
+	private void eatLineTerminators()
+		throws IOException {
+		if( stream.markSupported() ) {
+			while( stream.available() > 0 ) {
+				stream.mark( 1 );
+				final int b = stream.read();
+				if( b != CR && b != LF ) {
+					stream.reset();
+					return;
+				}
+			}
+		}
+	}
+
 	public HttpMessage parse()
 		throws IOException {
-		nextToken();
+		HttpMessage message = parseHead();
+		parseBody( message );
+		return message;
+	}
+
+	/**
+	 * Reads the start line and the header of a message, leaving its body in the stream.
+	 */
+	public HttpMessage parseHead()
+		throws IOException {
 		HttpMessage message = parseMessageType();
 		parseHeaderProperties( message );
-		readContent( message );
-		scanner.eatSeparatorsUntilEOF();
 		return message;
 	}
+
+	/**
+	 * Opens the body of a message whose head has been read by {@link #parseHead()} as a stream, instead
+	 * of reading it into the message with {@link #parseBody(HttpMessage)}. Transfer and content
+	 * encodings are decoded, and the content limits enforced, while the stream is read. The content of
+	 * the message is left empty.
+	 *
+	 * Closing the returned stream skips whatever is left of the body, so that the next message can be
+	 * read from the same connection.
+	 */
+	public InputStream openBody( HttpMessage message )
+		throws IOException {
+		message.setContent( new byte[ 0 ] );
+		InputStream raw;
+		String p = message.getProperty( HttpHeaderNames.TRANSFER_ENCODING );
+		if( p != null && p.trim().startsWith( "chunked" ) ) {
+			raw = new ChunkedInputStream( message );
+		} else if( (p = message.getProperty( HttpHeaderNames.CONTENT_LENGTH )) != null && !p.isEmpty() ) {
+			final long contentLength;
+			try {
+				contentLength = Long.parseLong( p.trim() );
+			} catch( NumberFormatException e ) {
+				throw new IOException( "Illegal Content-Length value " + p );
+			}
+			if( contentLength < 0 ) {
+				throw new IOException( "Illegal Content-Length value " + p );
+			}
+			checkContentSize( contentLength );
+			raw = new ContentInputStream( stream, contentLength );
+		} else if( message.isResponse() && isDelimitedByClose( message ) ) {
+			raw = stream;
+			if( maxContentSize >= 0 ) {
+				raw = new LimitedInputStream( raw, maxContentSize, "HTTP message body" );
+			}
+		} else {
+			raw = new ByteArrayInputStream( new byte[ 0 ] );
+		}
+
+		InputStream decoded = raw;
+		p = message.getProperty( HttpHeaderNames.CONTENT_ENCODING );
+		if( p != null ) {
+			if( p.contains( "deflate" ) ) {
+				decoded = new InflaterInputStream( raw );
+			} else if( p.contains( "gzip" ) ) {
+				decoded = new GZIPInputStream( raw );
+			} else if( !p.equals( "identity" ) ) {
+				throw new UnsupportedEncodingException( "Unrecognized Content-Encoding: " + p );
+			}
+			if( decoded != raw && maxDecodedContentSize >= 0 ) {
+				decoded = new LimitedInputStream( decoded, maxDecodedContentSize, "Decoded HTTP message body" );
+			}
+		}
+		return new BodyInputStream( raw, decoded );
+	}
+
+	/**
+	 * Reads the body of a message whose head has been read by {@link #parseHead()}.
+	 */
+	public void parseBody( HttpMessage message )
+		throws IOException {
+		readContent( message );
+		eatLineTerminators();
+	}
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.net.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * A bounded cache of encoded HTTP responses, shared by all the channels of an input port.
+ *
+ * Entries hold the complete response head and body as they were written on the wire, so that a hit
+ * can be answered without decoding the request into a message or starting a session. The cache is
+ * bounded by the total number of bytes it holds and evicts the least recently used entries first;
+ * entries also expire after the time-to-live they were stored with.
+ */
+public final class HttpResponseCache {
+	public static final long DEFAULT_CAPACITY = 32L * 1024 * 1024;
+
+	private static final Map< Object, HttpResponseCache > CACHES = new WeakHashMap<>();
+
+	/**
+	 * A cached response.
+	 */
+	public static final class Entry {
+		private final byte[] head;
+		private final byte[] body;
+		private final String etag;
+		private final long expiresAt;
+
+		private Entry( byte[] head, byte[] body, String etag, long expiresAt ) {
+			this.head = head;
+			this.body = body;
+			this.etag = etag;
+			this.expiresAt = expiresAt;
+		}
+
+		public String etag() {
+			return etag;
+		}
+
+		private long size() {
+			return head.length + body.length;
+		}
+	}
+
+	private final LinkedHashMap< String, Entry > entries = new LinkedHashMap<>( 64, 0.75f, true );
+	private final long capacity;
+	private long size = 0;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong notModified = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	private HttpResponseCache( long capacity ) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the cache associated to the given owner (typically an input port), creating it with the
+	 * given capacity if it does not exist yet.
+	 */
+	public static HttpResponseCache forOwner( Object owner, long capacity ) {
+		synchronized( CACHES ) {
+			return CACHES.computeIfAbsent( owner, k -> new HttpResponseCache( capacity ) );
+		}
+	}
+
+	/**
+	 * Computes a strong entity tag for the given body.
+	 */
+	public static String etagOf( byte[] body ) {
+		final CRC32C crc = new CRC32C();
+		crc.update( body, 0, body.length );
+		return "\"" + Long.toHexString( crc.getValue() ) + '-' + Integer.toHexString( body.length ) + '"';
+	}
+
+	/**
+	 * Returns true if the value of an If-None-Match request header matches the given entity tag, using
+	 * the weak comparison of RFC 9110 (tags match whether they are weak or not).
+	 */
+	public static boolean matches( String ifNoneMatch, String etag ) {
+		if( ifNoneMatch == null ) {
+			return false;
+		}
+		if( etag.startsWith( "W/" ) ) {
+			etag = etag.substring( 2 );
+		}
+		for( String candidate : ifNoneMatch.split( "," ) ) {
+			candidate = candidate.trim();
+			if( candidate.startsWith( "W/" ) ) {
+				candidate = candidate.substring( 2 );
+			}
+			if( candidate.equals( "*" ) || candidate.equals( etag ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the live entry for the given key, or null. Hits and misses are counted.
+	 */
+	public Entry get( String key ) {
+		final Entry entry;
+		synchronized( this ) {
+			Entry e = entries.get( key );
+			if( e != null && e.expiresAt - System.nanoTime() <= 0 ) {
+				entries.remove( key );
+				size -= e.size();
+				e = null;
+			}
+			entry = e;
+		}
+		(entry == null ? misses : hits).incrementAndGet();
+		return entry;
+	}
+
+	/**
+	 * Stores a response. Responses larger than a quarter of the capacity are not stored.
+	 */
+	public void put( String key, byte[] head, byte[] body, String etag, long ttlMillis ) {
+		final Entry entry = new Entry( head, body, etag, System.nanoTime() + ttlMillis * 1_000_000L );
+		if( ttlMillis <= 0 || entry.size() > capacity / 4 ) {
+			return;
+		}
+		synchronized( this ) {
+			final Entry old = entries.put( key, entry );
+			if( old != null ) {
+				size -= old.size();
+			}
+			size += entry.size();
+			final Iterator< Entry > it = entries.values().iterator();
+			while( size > capacity && it.hasNext() ) {
+				final Entry eldest = it.next();
+				it.remove();
+				size -= eldest.size();
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Writes a cached response.
+	 *
+	 * @param headOnly if true, the body is omitted (response to a HEAD request)
+	 */
+	public static void write( Entry entry, OutputStream ostream, boolean headOnly )
+		throws IOException {
+		ostream.write( entry.head );
+		if( !headOnly ) {
+			ostream.write( entry.body );
+		}
+	}
+
+	/**
+	 * Writes a 304 Not Modified response for the given entity tag.
+	 */
+	public void writeNotModified( String etag, boolean close, OutputStream ostream )
+		throws IOException {
+		notModified.incrementAndGet();
+		final HttpHeadBuilder builder = new HttpHeadBuilder();
+		builder.append( "HTTP/1.1 " ).append( HttpUtils.getStatusCodeDescription( 304 ) ).crlf();
+		builder.appendHeader( "ETag", etag );
+		if( close ) {
+			builder.appendHeader( "Connection", "close" );
+		}
+		builder.crlf();
+		builder.writeTo( ostream );
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		size = 0;
+	}
+
+	public synchronized int entryCount() {
+		return entries.size();
+	}
+
+	public synchronized long size() {
+		return size;
+	}
+
+	public long hits() {
+		return hits.get();
+	}
+
+	public long misses() {
+		return misses.get();
+	}
+
+	public long notModified() {
+		return notModified.get();
+	}
+
+	public long evictions() {
+		return evictions.get();
+	}
+}
@@ -50,12 +50,6 @@ import java.util.StringJoiner;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
 
-import javax.xml.parsers.DocumentBuilder;
-
-import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-
 import jolie.Interpreter;
 import jolie.js.JsUtils;
 import jolie.net.CommChannel;
@@ -65,7 +59,7 @@ import jolie.runtime.FaultException;
 import jolie.runtime.Value;
 import jolie.runtime.ValueVector;
 import jolie.runtime.typing.Type;
-import jolie.xml.XmlUtils;
+import jolie.xml.XmlValueReader;
 
 /**
  * Utilities for handling HTTP messages.
@@ -168,12 +162,22 @@ public class HttpUtils {
 		public static final String CONTENT_DISPOSITION = "contentDisposition";
 		public static final String DROP_URI_PATH = "dropURIPath";
 		public static final String CACHE_CONTROL = "cacheControl";
+		public static final String CACHE = "cache";
+		public static final String RESPONSE_CACHE_SIZE = "responseCacheSize";
+		public static final String STATIC_FILES = "static";
+		public static final String MAX_HEADER_SIZE = "maxHeaderSize";
+		public static final String MAX_BODY_SIZE = "maxBodySize";
+		public static final String MAX_DECODED_BODY_SIZE = "maxDecodedBodySize";
+		public static final String HEADER_TIMEOUT = "headerTimeout";
+		public static final String NDJSON_STREAM = "ndjsonStream";
 		public static final String FORCE_CONTENT_DECODING = "forceContentDecoding";
 		public static final String TEMPLATE = "template";
 		public static final String OUTGOING_HEADERS = "outHeaders";
 		public static final String INCOMING_HEADERS = "inHeaders";
 		public static final String STATUS_CODES = "statusCodes";
 		public static final String FORCE_RECEIVING_CHARSET = "forceRecvCharset";
+		public static final String MULTIPART_SPOOL_THRESHOLD = "multipartSpoolThreshold";
+		public static final String MULTIPART_SPOOL_DIRECTORY = "multipartSpoolDirectory";
 
 		public static class MultiPartHeaders {
 			public static final String FILENAME = "filename";
@@ -261,7 +265,7 @@ public class HttpUtils {
 	}
 
 	public static String getStatusCodeDescription( int statusCode ) {
-		return String.format( "%d %s", statusCode, STATUS_CODE_DESCRIPTIONS.get( statusCode ) );
+		return statusCode + " " + STATUS_CODE_DESCRIPTIONS.get( statusCode );
 	}
 
 	// Checks if the message requests the channel to be closed or kept open
@@ -286,7 +290,7 @@ public class HttpUtils {
 	}
 
 	private static void errorGenerator( OutputStream ostream, IOException e ) throws IOException {
-		StringBuilder httpMessage = new StringBuilder( "HTTP/1.1 " );
+		HttpHeadBuilder httpMessage = new HttpHeadBuilder().append( "HTTP/1.1 " );
 		if( e instanceof UnsupportedEncodingException ) { // 415 Unsupported Media Type
 			httpMessage.append( getStatusCodeDescription( 415 ) ).append( CRLF );
 		} else if( e instanceof UnsupportedMethodException ) {
@@ -304,6 +308,11 @@ public class HttpUtils {
 			}
 		} else if( e instanceof UnsupportedHttpVersionException ) { // 505 HTTP Version Not Supported
 			httpMessage.append( getStatusCodeDescription( 505 ) ).append( CRLF );
+		} else if( e instanceof HttpMessageTooLargeException ) { // 413 or 431
+			httpMessage.append( getStatusCodeDescription( ((HttpMessageTooLargeException) e).statusCode() ) )
+				.append( CRLF );
+			// The rest of the request has not been read: the connection cannot be reused
+			httpMessage.append( "Connection: close" ).append( CRLF );
 		} else { // 500 Internal Server Error
 			httpMessage.append( getStatusCodeDescription( 500 ) ).append( CRLF );
 		}
@@ -312,7 +321,7 @@ public class HttpUtils {
 		httpMessage.append( "Server: Jolie" ).append( CRLF )
 			.append( "Content-Type: text/plain; charset=utf-8" ).append( CRLF )
 			.append( "Content-Length: " ).append( content.size() ).append( CRLF ).append( CRLF );
-		ostream.write( httpMessage.toString().getBytes( StandardCharsets.UTF_8 ) );
+		httpMessage.writeTo( ostream );
 		ostream.write( content.getBytes() );
 		ostream.flush();
 	}
@@ -442,7 +451,7 @@ public class HttpUtils {
 		return null;
 	}
 
-	public static ByteArray encode( String encodingHeader, ByteArray content, StringBuilder headerBuilder )
+	public static ByteArray encode( String encodingHeader, ByteArray content, Appendable headerBuilder )
 		throws IOException {
 		for( Map.Entry< Double, String > encoding : parseAcceptHeaders( encodingHeader ) ) { // accept-encoding
 			// RFC 7231 section-5.3.4 introduced the "*" (any) option, we opt for gzip as a sane default
@@ -580,21 +589,14 @@ public class HttpUtils {
 			value, strictEncoding );
 	}
 
-	public static void parseXML( DocumentBuilder docBuilder, HttpMessage message, Value value, String charset )
+	public static void parseXML( XmlValueReader xmlReader, HttpMessage message, Value value, String charset )
 		throws IOException {
-		try {
-			if( message.size() > 0 ) {
-				InputSource src = new InputSource( new ByteArrayInputStream( message.content() ) );
-				src.setEncoding( charset );
-				Document doc = docBuilder.parse( src );
-				XmlUtils.documentToValue( doc, value, false );
-			}
-		} catch( SAXException pce ) {
-			throw new IOException( pce );
+		if( message.size() > 0 ) {
+			xmlReader.read( new ByteArrayInputStream( message.content() ), charset, value, true, false );
 		}
 	}
 
-	public static void send_appendQuerystring( Value value, StringBuilder headerBuilder )
+	public static void send_appendQuerystring( Value value, Appendable headerBuilder )
 		throws IOException {
 		if( value.hasChildren() ) {
 			StringJoiner sj = new StringJoiner( "&" );
@@ -614,7 +616,7 @@ public class HttpUtils {
 		}
 	}
 
-	public static void send_appendJsonQueryString( Value value, Type sendType, StringBuilder headerBuilder )
+	public static void send_appendJsonQueryString( Value value, Type sendType, Appendable headerBuilder )
 		throws IOException {
 		if( value.isDefined() || value.hasChildren() ) {
 			headerBuilder.append( "?" );
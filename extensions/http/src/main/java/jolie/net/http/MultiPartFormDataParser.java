@@ -21,17 +21,16 @@
 
 package jolie.net.http;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.StringReader;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.regex.Pattern;
 
 import jolie.runtime.ByteArray;
@@ -48,6 +47,7 @@ public class MultiPartFormDataParser {
 
 	public static class PartProperties {
 		private String filename = null;
+		private Path spoolFile = null;
 
 		private void setFilename( String filename ) {
 			this.filename = filename;
@@ -56,27 +56,145 @@ public class MultiPartFormDataParser {
 		public String filename() {
 			return filename;
 		}
+
+		/**
+		 * The temporary file holding the content of this part, if it was too large to be kept in memory.
+		 */
+		public Path spoolFile() {
+			return spoolFile;
+		}
+	}
+
+	/**
+	 * A part of a multipart/form-data body, as read by {@link MultiPartReader}.
+	 */
+	public static class Part {
+		private final String name;
+		private final String filename;
+		private final boolean hasContentType;
+		private byte[] content = null;
+		private Path spoolFile = null;
+		private long size = 0;
+
+		private Part( String name, String filename, boolean hasContentType ) {
+			this.name = name;
+			this.filename = filename;
+			this.hasContentType = hasContentType;
+		}
+
+		static Part fromHeaders( List< String > headers )
+			throws IOException {
+			String name = null, filename = null;
+			boolean hasContentType = false;
+			String[] params;
+			for( String line : headers ) {
+				params = PARAMETERS_SPLIT_PATTERN.split( line );
+				for( String param : params ) {
+					param = param.trim();
+					if( param.startsWith( "name" ) ) {
+						try {
+							name = KEY_VALUE_SPLIT_PATTERN.split( param, 2 )[ 1 ];
+							// Names are surronded by "": cut them.
+							name = URLDecoder.decode( unquote( name ), HttpUtils.URL_DECODER_ENC );
+						} catch( ArrayIndexOutOfBoundsException e ) {
+							throw new IOException( "Invalid name specified in multipart form data element" );
+						}
+					} else if( param.startsWith( "filename" ) ) {
+						try {
+							filename = KEY_VALUE_SPLIT_PATTERN.split( param, 2 )[ 1 ];
+							// Filenames are surronded by quotes "": cut them.
+							filename = URLDecoder.decode( unquote( filename ), HttpUtils.URL_DECODER_ENC );
+						} catch( ArrayIndexOutOfBoundsException e ) {
+							throw new IOException( "Invalid filename specified in multipart form data element" );
+						}
+					} else if( param.regionMatches( true, 0, "Content-Type", 0, "Content-Type".length() ) ) {
+						// TODO: parse content-type better, now it checks only if it exists or not
+						hasContentType = true;
+					}
+				}
+			}
+			if( name == null ) {
+				throw new IOException( "Invalid multipart form data element: missing name" );
+			}
+			return new Part( name, filename, hasContentType );
+		}
+
+		void setContent( byte[] content ) {
+			this.content = content;
+			this.size = content.length;
+		}
+
+		void setSpoolFile( Path spoolFile, long size ) {
+			this.spoolFile = spoolFile;
+			this.size = size;
+		}
+
+		void deleteSpoolFile() {
+			if( spoolFile != null ) {
+				try {
+					Files.deleteIfExists( spoolFile );
+				} catch( IOException e ) {
+					// nothing more we can do
+				}
+			}
+		}
+
+		public String name() {
+			return name;
+		}
+
+		public long size() {
+			return size;
+		}
 	}
 
 	public MultiPartFormDataParser( HttpMessage message, Value value )
 		throws IOException {
-		final String[] params = PARAMETERS_SPLIT_PATTERN.split( message.getProperty( "content-type" ) );
-		Optional< String > boundary = Arrays.stream( params ).map( String::trim )
-			.filter( s -> s.startsWith( "boundary" ) )
-			.findAny()
-			.map( s -> {
-				String[] parts = KEY_VALUE_SPLIT_PATTERN.split( s, 2 );
-				return parts.length >= 2 ? "--" + parts[ 1 ] : null;
-			} );
-		if( !boundary.isPresent() ) {
+		final String boundary = boundaryOf( message.getProperty( HttpHeaderNames.CONTENT_TYPE ) );
+		if( boundary == null ) {
 			throw new IOException( "Invalid boundary in multipart/form-data http message" );
 		}
 
 		this.value = value;
-		this.boundary = boundary.get();
+		this.boundary = boundary;
 		this.message = message;
 	}
 
+	/**
+	 * Deletes the temporary files of the parts that have been spooled to disk. Does nothing if
+	 * {@code parts} is {@code null}.
+	 */
+	public static void deleteSpoolFiles( List< Part > parts ) {
+		if( parts != null ) {
+			for( Part part : parts ) {
+				part.deleteSpoolFile();
+			}
+		}
+	}
+
+	/**
+	 * Returns the boundary parameter of a multipart content type, or {@code null} if there is none.
+	 */
+	static String boundaryOf( String contentType ) {
+		if( contentType == null ) {
+			return null;
+		}
+		for( String param : PARAMETERS_SPLIT_PATTERN.split( contentType ) ) {
+			param = param.trim();
+			if( param.startsWith( "boundary" ) ) {
+				String[] parts = KEY_VALUE_SPLIT_PATTERN.split( param, 2 );
+				return parts.length >= 2 && !parts[ 1 ].isEmpty() ? unquote( parts[ 1 ].trim() ) : null;
+			}
+		}
+		return null;
+	}
+
+	private static String unquote( String s ) {
+		return s.length() >= 2 && s.charAt( 0 ) == '"' && s.charAt( s.length() - 1 ) == '"'
+			? s.substring( 1, s.length() - 1 )
+			: s;
+	}
+
 	private PartProperties getPartProperties( String partName ) {
 		PartProperties ret = partPropertiesMap.get( partName );
 		if( ret == null ) {
@@ -90,82 +208,37 @@ public class MultiPartFormDataParser {
 		return partPropertiesMap.entrySet();
 	}
 
-	private void parsePart( String part, int offset )
+	/**
+	 * Stores the parts of the message in the value. Parts already read by {@link HttpParser} while
+	 * receiving the message are used as they are; otherwise the in-memory content of the message is
+	 * parsed.
+	 * <p>
+	 * Parts that have been spooled to a temporary file get the absolute path of that file as value. The
+	 * HTTP protocol deletes the file when it sends the response to the request, so a request-response
+	 * operation that wants to keep it must move it before replying. The files received by one-way
+	 * operations are owned by the receiving service, which should move or delete them.
+	 */
+	public void parse()
 		throws IOException {
-		boolean hasContentType;
-		// Split header from content
-		String[] hc = part.split( HttpUtils.CRLF + HttpUtils.CRLF, 2 );
-		BufferedReader reader =
-			new BufferedReader(
-				new StringReader( hc[ 0 ] ) );
-		String line, name = null, filename = null;
-		String[] params;
-
-		// Parse part header
-		hasContentType = false;
-		while( (line = reader.readLine()) != null && !line.isEmpty() ) {
-			params = PARAMETERS_SPLIT_PATTERN.split( line );
-			for( String param : params ) {
-				param = param.trim();
-				if( param.startsWith( "name" ) ) {
-					try {
-						name = KEY_VALUE_SPLIT_PATTERN.split( param, 2 )[ 1 ];
-						// Names are surronded by "": cut them.
-						name = URLDecoder.decode( name.substring( 1, name.length() - 1 ), HttpUtils.URL_DECODER_ENC );
-					} catch( ArrayIndexOutOfBoundsException e ) {
-						throw new IOException( "Invalid name specified in multipart form data element" );
-					}
-				} else if( param.startsWith( "filename" ) ) {
-					try {
-						filename = KEY_VALUE_SPLIT_PATTERN.split( param, 2 )[ 1 ];
-						// Filenames are surronded by quotes "": cut them.
-						filename = URLDecoder.decode( filename.substring( 1, filename.length() - 1 ),
-							HttpUtils.URL_DECODER_ENC );
-					} catch( ArrayIndexOutOfBoundsException e ) {
-						throw new IOException( "Invalid filename specified in multipart form data element" );
-					}
-				} else if( param.startsWith( "Content-Type" ) ) {
-					// TODO: parse content-type better, now it checks only if it exists or not
-					hasContentType = true;
-				}
-			}
-		}
-		if( name == null ) {
-			throw new IOException( "Invalid multipart form data element: missing name" );
+		List< Part > parts = message.multiPartParts();
+		if( parts == null ) {
+			parts = new MultiPartReader( message.content(), boundary ).readParts();
 		}
 
-		offset += hc[ 0 ].length() + 4;
-
-		Value child = value.getNewChild( name );
-		if( hc.length > 1 ) {
-			if( hasContentType == true ) {
-				child.setValue(
-					new ByteArray( Arrays.copyOfRange( message.content(), offset, offset + hc[ 1 ].length() ) ) );
+		for( Part part : parts ) {
+			Value child = value.getNewChild( part.name );
+			if( part.spoolFile != null ) {
+				child.setValue( part.spoolFile.toAbsolutePath().toString() );
+				getPartProperties( part.name ).spoolFile = part.spoolFile;
+			} else if( part.hasContentType ) {
+				child.setValue( new ByteArray( part.content ) );
 			} else {
-				child.setValue(
-					new String( Arrays.copyOfRange( message.content(), offset, offset + hc[ 1 ].length() ) ) );
+				child.setValue( new String( part.content, StandardCharsets.UTF_8 ) );
 			}
-		} /*
-			 * else { value.getNewChild( name ).setValue( new ByteArray( new byte[0] ) ); }
-			 */
 
-		if( filename != null ) {
-			getPartProperties( name ).setFilename( filename );
-		}
-	}
-
-	public void parse()
-		throws IOException {
-		// this needs to be strictly parsed with US-ASCII, since we are dealing with raw data
-		String[] parts =
-			(HttpUtils.CRLF + new String( message.content(), StandardCharsets.US_ASCII )).split( boundary + "--" );
-		parts = (parts[ 0 ] + boundary + HttpUtils.CRLF).split( HttpUtils.CRLF + boundary + HttpUtils.CRLF );
-
-		// The first one is always empty, so we start from 1
-		int offset = boundary.length() + 2;
-		for( int i = 1; i < parts.length; i++ ) {
-			parsePart( parts[ i ], offset );
-			offset += parts[ i ].length() + boundary.length() + 4;
+			if( part.filename != null ) {
+				getPartProperties( part.name ).setFilename( part.filename );
+			}
 		}
 	}
 }
@@ -0,0 +1,364 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.net.http;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Byte-level reader for multipart/form-data bodies (RFC 7578).
+ *
+ * Boundaries are located with a Boyer-Moore-Horspool search directly on the bytes of the body. The
+ * reader works either on a body that is already in memory, in which case part contents are copied
+ * out of it exactly once, or on a stream, in which case it only keeps a fixed-size window of the
+ * body in memory and parts that grow beyond the spooling threshold are written to temporary files.
+ */
+class MultiPartReader {
+	private static final int WINDOW_SIZE = 64 * 1024;
+	private static final int MAX_PART_HEADER_SIZE = 16 * 1024;
+	private static final int MAX_TRANSPORT_PADDING = 1024;
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+	private static final String SPOOL_FILE_PREFIX = "jolie-multipart-";
+
+	private final InputStream stream;
+	// CRLF "--" boundary
+	private final byte[] delimiter;
+	private final int[] skip = new int[ 256 ];
+	private final long spoolThreshold;
+	private final Path spoolDirectory;
+
+	private final byte[] buffer;
+	private int pos;
+	private int limit;
+	private boolean eof;
+
+	/**
+	 * Reads the parts of a body that is already in memory.
+	 */
+	MultiPartReader( byte[] content, String boundary ) {
+		this.stream = null;
+		this.delimiter = delimiterFor( boundary );
+		this.spoolThreshold = Long.MAX_VALUE;
+		this.spoolDirectory = null;
+		this.buffer = content;
+		this.pos = 0;
+		this.limit = content.length;
+		this.eof = true;
+		initSkipTable();
+	}
+
+	/**
+	 * Reads the parts of a body from a stream. Parts whose size exceeds {@code spoolThreshold} bytes,
+	 * file uploads and plain fields alike, are stored in temporary files in {@code spoolDirectory}, or
+	 * in the default temporary-file directory if that is {@code null}.
+	 */
+	MultiPartReader( InputStream stream, String boundary, long spoolThreshold, Path spoolDirectory ) {
+		this.stream = stream;
+		this.delimiter = delimiterFor( boundary );
+		this.spoolThreshold = spoolThreshold;
+		this.spoolDirectory = spoolDirectory;
+		this.buffer = new byte[ Math.max( WINDOW_SIZE, delimiter.length * 2 ) ];
+		this.pos = 0;
+		this.limit = 0;
+		this.eof = false;
+		initSkipTable();
+	}
+
+	private static byte[] delimiterFor( String boundary ) {
+		return ("\r\n--" + boundary).getBytes( StandardCharsets.ISO_8859_1 );
+	}
+
+	private void initSkipTable() {
+		final int m = delimiter.length;
+		Arrays.fill( skip, m );
+		for( int j = 0; j < m - 1; j++ ) {
+			skip[ delimiter[ j ] & 0xFF ] = m - 1 - j;
+		}
+	}
+
+	private int indexOfDelimiter( int from, int to ) {
+		final int m = delimiter.length;
+		int i = from;
+		while( i <= to - m ) {
+			int j = m - 1;
+			while( j >= 0 && buffer[ i + j ] == delimiter[ j ] ) {
+				j--;
+			}
+			if( j < 0 ) {
+				return i;
+			}
+			i += skip[ buffer[ i + m - 1 ] & 0xFF ];
+		}
+		return -1;
+	}
+
+	/**
+	 * Moves the unread bytes to the start of the window and reads more from the stream.
+	 *
+	 * @return {@code false} if no more bytes could be read
+	 */
+	private boolean fill()
+		throws IOException {
+		if( eof ) {
+			return false;
+		}
+		if( pos > 0 ) {
+			System.arraycopy( buffer, pos, buffer, 0, limit - pos );
+			limit -= pos;
+			pos = 0;
+		}
+		final int r = stream.read( buffer, limit, buffer.length - limit );
+		if( r == -1 ) {
+			eof = true;
+			return false;
+		}
+		limit += r;
+		return true;
+	}
+
+	private boolean ensureAvailable( int n )
+		throws IOException {
+		while( limit - pos < n ) {
+			if( !fill() ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int nextByte()
+		throws IOException {
+		if( pos == limit && !ensureAvailable( 1 ) ) {
+			throw new IOException( "Unexpected end of multipart/form-data body" );
+		}
+		return buffer[ pos++ ];
+	}
+
+	private boolean startsWithDashBoundary()
+		throws IOException {
+		// the first boundary may appear without the leading CRLF
+		final int n = delimiter.length - 2;
+		if( !ensureAvailable( n ) ) {
+			return false;
+		}
+		for( int i = 0; i < n; i++ ) {
+			if( buffer[ pos + i ] != delimiter[ i + 2 ] ) {
+				return false;
+			}
+		}
+		pos += n;
+		return true;
+	}
+
+	/**
+	 * Consumes bytes up to and including the next delimiter, passing them to {@code sink} if it is not
+	 * null.
+	 */
+	private void readUntilDelimiter( PartSink sink )
+		throws IOException {
+		while( true ) {
+			final int index = indexOfDelimiter( pos, limit );
+			if( index >= 0 ) {
+				if( sink != null ) {
+					sink.write( buffer, pos, index - pos );
+				}
+				pos = index + delimiter.length;
+				return;
+			}
+			// keep the tail that could be the beginning of a delimiter
+			final int safe = Math.max( pos, limit - delimiter.length + 1 );
+			if( sink != null && safe > pos ) {
+				sink.write( buffer, pos, safe - pos );
+			}
+			pos = safe;
+			if( !fill() ) {
+				throw new IOException( "Malformed multipart/form-data body: missing closing boundary" );
+			}
+		}
+	}
+
+	/**
+	 * Consumes what follows a delimiter.
+	 *
+	 * @return {@code false} if it was the closing delimiter
+	 */
+	private boolean afterDelimiter()
+		throws IOException {
+		if( ensureAvailable( 2 ) && buffer[ pos ] == '-' && buffer[ pos + 1 ] == '-' ) {
+			pos += 2;
+			return false;
+		}
+		// transport padding, then CRLF
+		int padding = 0;
+		while( nextByte() != LF ) {
+			if( ++padding > MAX_TRANSPORT_PADDING ) {
+				throw new IOException( "Malformed multipart/form-data body: invalid boundary line" );
+			}
+		}
+		return true;
+	}
+
+	private List< String > readPartHeaders()
+		throws IOException {
+		final List< String > headers = new ArrayList<>();
+		final byte[] line = new byte[ MAX_PART_HEADER_SIZE ];
+		int total = 0;
+		while( true ) {
+			int length = 0;
+			int b;
+			while( (b = nextByte()) != LF ) {
+				if( total + length >= MAX_PART_HEADER_SIZE ) {
+					throw new IOException( "multipart/form-data part header exceeds maximum allowed size ("
+						+ MAX_PART_HEADER_SIZE + " bytes)" );
+				}
+				line[ length++ ] = (byte) b;
+			}
+			if( length > 0 && line[ length - 1 ] == CR ) {
+				length--;
+			}
+			if( length == 0 ) {
+				return headers;
+			}
+			total += length;
+			headers.add( new String( line, 0, length, StandardCharsets.UTF_8 ) );
+		}
+	}
+
+	/**
+	 * Reads all the parts of the body. When reading from a stream, the stream is consumed up to the end
+	 * of the closing delimiter.
+	 */
+	List< MultiPartFormDataParser.Part > readParts()
+		throws IOException {
+		final List< MultiPartFormDataParser.Part > parts = new ArrayList<>();
+		if( !startsWithDashBoundary() ) {
+			// skip the preamble
+			readUntilDelimiter( null );
+		}
+		try {
+			while( afterDelimiter() ) {
+				final MultiPartFormDataParser.Part part = MultiPartFormDataParser.Part.fromHeaders( readPartHeaders() );
+				final PartSink sink = new PartSink( spoolThreshold );
+				try {
+					readUntilDelimiter( sink );
+					sink.close();
+				} catch( IOException e ) {
+					sink.discard();
+					throw e;
+				}
+				sink.storeInto( part );
+				parts.add( part );
+			}
+		} catch( IOException e ) {
+			for( MultiPartFormDataParser.Part part : parts ) {
+				part.deleteSpoolFile();
+			}
+			throw e;
+		}
+		return parts;
+	}
+
+	/**
+	 * Collects the content of a part, in memory up to a threshold and in a temporary file beyond it.
+	 */
+	private class PartSink {
+		private final long threshold;
+		private byte[] data = null;
+		private int size = 0;
+		private Path file = null;
+		private OutputStream fileStream = null;
+		private long fileSize = 0;
+
+		private PartSink( long threshold ) {
+			this.threshold = threshold;
+		}
+
+		private void write( byte[] b, int offset, int length )
+			throws IOException {
+			if( length == 0 ) {
+				return;
+			}
+			if( fileStream == null && (long) size + length > threshold ) {
+				file = spoolDirectory == null ? Files.createTempFile( SPOOL_FILE_PREFIX, null )
+					: Files.createTempFile( spoolDirectory, SPOOL_FILE_PREFIX, null );
+				fileStream = new BufferedOutputStream( Files.newOutputStream( file ) );
+				if( size > 0 ) {
+					fileStream.write( data, 0, size );
+				}
+				fileSize = size;
+				data = null;
+			}
+			if( fileStream != null ) {
+				fileStream.write( b, offset, length );
+				fileSize += length;
+			} else if( data == null ) {
+				data = Arrays.copyOfRange( b, offset, offset + length );
+				size = length;
+			} else {
+				if( size + length > data.length ) {
+					data = Arrays.copyOf( data, Math.max( data.length * 2, size + length ) );
+				}
+				System.arraycopy( b, offset, data, size, length );
+				size += length;
+			}
+		}
+
+		private void close()
+			throws IOException {
+			if( fileStream != null ) {
+				fileStream.close();
+			}
+		}
+
+		private void discard() {
+			try {
+				close();
+			} catch( IOException e ) {
+				// the file is being deleted anyway
+			}
+			if( file != null ) {
+				try {
+					Files.deleteIfExists( file );
+				} catch( IOException e ) {
+					// nothing more we can do
+				}
+			}
+		}
+
+		private void storeInto( MultiPartFormDataParser.Part part ) {
+			if( file != null ) {
+				part.setSpoolFile( file, fileSize );
+			} else if( data == null ) {
+				part.setContent( new byte[ 0 ] );
+			} else {
+				part.setContent( data.length == size ? data : Arrays.copyOf( data, size ) );
+			}
+		}
+	}
+}
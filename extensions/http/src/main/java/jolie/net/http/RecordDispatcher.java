@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.net.http;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import jolie.net.CommChannel;
+import jolie.net.CommMessage;
+import jolie.runtime.Value;
+
+/**
+ * Delivers the records of a stream to a one-way operation of the local service, one message per
+ * record.
+ *
+ * The records passed to {@link #dispatch(Value)} are handed over through a bounded queue to a task
+ * running on an executor, which sends them to the service. The thread parsing the source (e.g., the
+ * thread receiving an HTTP request) is thus not held up by the delivery of each record, but it
+ * blocks in {@link #dispatch(Value)} when the queue is full, which stops the reading of the source
+ * until the service catches up. The queue holds up to {@code window} records, and at most
+ * {@code window} more can be waiting to be accepted by the service.
+ */
+public final class RecordDispatcher {
+	public static final int DEFAULT_WINDOW = 64;
+
+	// Marks the end of the stream in the queue
+	private static final Value END = Value.create();
+
+	private final CommChannel channel;
+	private final String operationName;
+	private final int window;
+	private final BlockingQueue< Value > queue;
+	private final FutureTask< Long > delivery;
+	private volatile IOException failure = null;
+	private volatile boolean aborted = false;
+
+	/**
+	 * @param channel a local channel to the input port that should receive the records
+	 * @param executor the executor running the delivery of the records
+	 */
+	public RecordDispatcher( CommChannel channel, String operationName, int window, Executor executor ) {
+		this.channel = channel;
+		this.operationName = operationName;
+		this.window = Math.max( 1, window );
+		this.queue = new ArrayBlockingQueue<>( this.window );
+		this.delivery = new FutureTask<>( this::deliver );
+		executor.execute( delivery );
+	}
+
+	/**
+	 * Queues a record for delivery, waiting if the queue is full.
+	 *
+	 * @throws IOException if the delivery of a previous record has failed
+	 */
+	public void dispatch( Value record )
+		throws IOException {
+		final IOException e = failure;
+		if( e != null ) {
+			throw new IOException( e.getMessage(), e );
+		}
+		enqueue( record );
+	}
+
+	/**
+	 * Waits until all the dispatched records have been acknowledged.
+	 *
+	 * @return the number of dispatched records
+	 */
+	public long finish()
+		throws IOException {
+		enqueue( END );
+		try {
+			return delivery.get();
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new IOException( e );
+		} catch( ExecutionException e ) {
+			if( e.getCause() instanceof IOException ) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException( e.getCause() );
+		}
+	}
+
+	/**
+	 * Stops the delivery, dropping the records still in the queue. To be called instead of
+	 * {@link #finish()} when reading the source fails.
+	 */
+	public void abort() {
+		aborted = true;
+		queue.clear();
+		try {
+			enqueue( END );
+		} catch( IOException e ) {
+			// The delivery task stops at the next record anyway
+		}
+	}
+
+	private void enqueue( Value record )
+		throws IOException {
+		try {
+			queue.put( record );
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new IOException( e );
+		}
+	}
+
+	private long deliver()
+		throws IOException, InterruptedException {
+		final ArrayDeque< Future< CommMessage > > pending = new ArrayDeque<>();
+		long count = 0;
+		Value record;
+		while( (record = queue.take()) != END ) {
+			// After a failure, keep draining the queue so that the source never blocks: it stops at its
+			// next dispatch
+			if( failure == null && !aborted ) {
+				try {
+					if( pending.size() >= window ) {
+						awaitOldest( pending );
+					}
+					final CommMessage message = CommMessage.createRequest( operationName, "/", record );
+					channel.send( message );
+					pending.add( channel.recvResponseFor( message ) );
+					count++;
+				} catch( IOException e ) {
+					failure = e;
+				}
+			}
+		}
+		if( failure != null ) {
+			throw failure;
+		}
+		if( !aborted ) {
+			while( !pending.isEmpty() ) {
+				awaitOldest( pending );
+			}
+		}
+		return count;
+	}
+
+	private void awaitOldest( ArrayDeque< Future< CommMessage > > pending )
+		throws IOException, InterruptedException {
+		final CommMessage response;
+		try {
+			response = pending.poll().get();
+		} catch( ExecutionException e ) {
+			throw new IOException( e.getCause() );
+		}
+		if( response.isFault() ) {
+			throw new IOException( "Record rejected by operation " + operationName + ": "
+				+ response.fault().faultName() + " " + response.fault().getMessage() );
+		}
+	}
+}
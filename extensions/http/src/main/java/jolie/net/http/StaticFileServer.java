@@ -0,0 +1,509 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.net.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the files under a directory in response to GET and HEAD requests, bypassing message
+ * decoding, sessions and content encoding.
+ *
+ * File bodies are sent with {@link FileChannel#transferTo(long, long, WritableByteChannel)} when a
+ * raw socket channel is available. Single byte ranges, If-None-Match and If-Modified-Since are
+ * supported. Small files are kept in a bounded LRU cache and, when enabled, gzip variants (either a
+ * sibling {@code .gz} file or one generated once into a cache directory) are served to clients that
+ * accept them.
+ */
+public final class StaticFileServer {
+	public static final int DEFAULT_HOT_FILE_MAX_SIZE = 64 * 1024;
+	public static final long DEFAULT_HOT_CACHE_CAPACITY = 4L * 1024 * 1024;
+
+	private static final int GZIP_MIN_SIZE = 1024;
+	private static final Map< Object, StaticFileServer > SERVERS = new WeakHashMap<>();
+	private static final Map< String, String > CONTENT_TYPES = new HashMap<>();
+
+	static {
+		CONTENT_TYPES.put( "html", "text/html; charset=utf-8" );
+		CONTENT_TYPES.put( "htm", "text/html; charset=utf-8" );
+		CONTENT_TYPES.put( "css", "text/css; charset=utf-8" );
+		CONTENT_TYPES.put( "js", "application/javascript; charset=utf-8" );
+		CONTENT_TYPES.put( "mjs", "application/javascript; charset=utf-8" );
+		CONTENT_TYPES.put( "json", "application/json" );
+		CONTENT_TYPES.put( "map", "application/json" );
+		CONTENT_TYPES.put( "xml", "application/xml" );
+		CONTENT_TYPES.put( "txt", "text/plain; charset=utf-8" );
+		CONTENT_TYPES.put( "csv", "text/csv; charset=utf-8" );
+		CONTENT_TYPES.put( "svg", "image/svg+xml" );
+		CONTENT_TYPES.put( "png", "image/png" );
+		CONTENT_TYPES.put( "jpg", "image/jpeg" );
+		CONTENT_TYPES.put( "jpeg", "image/jpeg" );
+		CONTENT_TYPES.put( "gif", "image/gif" );
+		CONTENT_TYPES.put( "webp", "image/webp" );
+		CONTENT_TYPES.put( "ico", "image/x-icon" );
+		CONTENT_TYPES.put( "woff", "font/woff" );
+		CONTENT_TYPES.put( "woff2", "font/woff2" );
+		CONTENT_TYPES.put( "ttf", "font/ttf" );
+		CONTENT_TYPES.put( "otf", "font/otf" );
+		CONTENT_TYPES.put( "wasm", "application/wasm" );
+		CONTENT_TYPES.put( "pdf", "application/pdf" );
+		CONTENT_TYPES.put( "zip", "application/zip" );
+		CONTENT_TYPES.put( "mp4", "video/mp4" );
+		CONTENT_TYPES.put( "webm", "video/webm" );
+		CONTENT_TYPES.put( "mp3", "audio/mpeg" );
+	}
+
+	private static final class HotFile {
+		private final byte[] content;
+		private final long lastModified;
+
+		private HotFile( byte[] content, long lastModified ) {
+			this.content = content;
+			this.lastModified = lastModified;
+		}
+	}
+
+	private final Path root;
+	private final String prefix;
+	private final String index;
+	private final boolean precompressed;
+	private final Path gzipCacheDirectory;
+	private final long hotCacheCapacity;
+	private final int hotFileMaxSize;
+
+	private final LinkedHashMap< Path, HotFile > hotFiles = new LinkedHashMap<>( 64, 0.75f, true );
+	private long hotCacheSize = 0;
+
+	/**
+	 * @param root the directory to serve files from
+	 * @param prefix the request path prefix mapped to the root directory
+	 * @param index the file to serve for requests to a directory, or null
+	 * @param precompressed whether gzip variants should be served to clients accepting them
+	 * @param gzipCacheDirectory the directory where generated gzip variants are kept, or null to only
+	 *        use existing sibling .gz files
+	 * @param hotCacheCapacity the maximum number of bytes kept in memory for small files
+	 * @param hotFileMaxSize the size of the largest file that may be kept in memory
+	 */
+	public StaticFileServer( Path root, String prefix, String index, boolean precompressed,
+		Path gzipCacheDirectory, long hotCacheCapacity, int hotFileMaxSize )
+		throws IOException {
+		this.root = root.toRealPath();
+		this.prefix = prefix.endsWith( "/" ) ? prefix : prefix + "/";
+		this.index = index;
+		this.precompressed = precompressed;
+		this.gzipCacheDirectory = gzipCacheDirectory;
+		this.hotCacheCapacity = hotCacheCapacity;
+		this.hotFileMaxSize = hotFileMaxSize;
+		if( gzipCacheDirectory != null ) {
+			Files.createDirectories( gzipCacheDirectory );
+		}
+	}
+
+	/**
+	 * Returns the server associated to the given owner (typically an input port), creating it through
+	 * the given factory if it does not exist yet.
+	 */
+	public static StaticFileServer forOwner( Object owner, Supplier< StaticFileServer > factory ) {
+		synchronized( SERVERS ) {
+			return SERVERS.computeIfAbsent( owner, k -> factory.get() );
+		}
+	}
+
+	/**
+	 * Serves the file requested by the given GET or HEAD request, if any.
+	 *
+	 * @param socket the channel underlying ostream, used for zero-copy transfers; may be null
+	 * @param close whether the connection is going to be closed after the response
+	 * @return false if the request does not refer to a file under the root directory, in which case
+	 *         nothing has been written
+	 */
+	public boolean serve( HttpMessage request, OutputStream ostream, WritableByteChannel socket, boolean close )
+		throws IOException {
+		final Path file = resolve( request.requestPath() );
+		if( file == null ) {
+			return false;
+		}
+		final BasicFileAttributes attributes = Files.readAttributes( file, BasicFileAttributes.class );
+		final long size = attributes.size();
+		final long lastModified = attributes.lastModifiedTime().toMillis();
+		final String identityEtag = '"' + Long.toHexString( lastModified ) + '-' + Long.toHexString( size ) + '"';
+		final String lastModifiedDate = formatDate( lastModified );
+		final String contentType = contentType( file );
+
+		final String rangeHeader = request.getProperty( HttpHeaderNames.RANGE );
+		final String ifRange = request.getProperty( "if-range" );
+		final boolean ranged = rangeHeader != null
+			&& (ifRange == null || ifRange.equals( identityEtag ) || ifRange.equals( lastModifiedDate ));
+		// Ranges always refer to the identity variant
+		final Path gzipVariant =
+			!ranged && precompressed && acceptsGzip( request ) ? gzipVariant( file, size, lastModified, contentType )
+				: null;
+		// The variants have different entity tags, so that caches and conditional requests do not mix them
+		// up
+		final String etag = gzipVariant == null ? identityEtag : gzipEtag( identityEtag );
+
+		final HttpHeadBuilder head = new HttpHeadBuilder();
+		if( notModified( request, etag, lastModified ) ) {
+			head.append( "HTTP/1.1 " ).append( HttpUtils.getStatusCodeDescription( 304 ) ).crlf();
+			appendCommonHeaders( head, etag, lastModifiedDate, close );
+			head.crlf();
+			head.writeTo( ostream );
+			ostream.flush();
+			return true;
+		}
+
+		long[] range = null;
+		if( ranged ) {
+			range = parseRange( rangeHeader, size );
+			if( range != null && range.length == 0 ) {
+				head.append( "HTTP/1.1 " ).append( HttpUtils.getStatusCodeDescription( 416 ) ).crlf();
+				head.appendHeader( "Content-Range", "bytes */" + size );
+				head.appendHeader( "Content-Length", "0" );
+				appendCommonHeaders( head, etag, lastModifiedDate, close );
+				head.crlf();
+				head.writeTo( ostream );
+				ostream.flush();
+				return true;
+			}
+		}
+
+		Path bodyFile = file;
+		long offset = 0;
+		long length = size;
+		String contentEncoding = null;
+		if( range != null ) {
+			offset = range[ 0 ];
+			length = range[ 1 ] - range[ 0 ] + 1;
+			head.append( "HTTP/1.1 " ).append( HttpUtils.getStatusCodeDescription( 206 ) ).crlf();
+			head.appendHeader( "Content-Range", "bytes " + range[ 0 ] + '-' + range[ 1 ] + '/' + size );
+		} else {
+			head.append( "HTTP/1.1 " ).append( HttpUtils.getStatusCodeDescription( 200 ) ).crlf();
+			if( gzipVariant != null ) {
+				bodyFile = gzipVariant;
+				length = Files.size( gzipVariant );
+				contentEncoding = "gzip";
+			}
+		}
+
+		head.appendHeader( "Content-Type", contentType );
+		if( contentEncoding != null ) {
+			head.appendHeader( "Content-Encoding", contentEncoding );
+		}
+		head.append( "Content-Length: " ).append( length ).crlf();
+		appendCommonHeaders( head, etag, lastModifiedDate, close );
+		head.crlf();
+		head.writeTo( ostream );
+
+		if( !request.isHead() && length > 0 ) {
+			final byte[] hot = bodyFile == file ? hotContent( file, size, lastModified ) : null;
+			if( hot != null && hot.length >= offset + length ) {
+				ostream.write( hot, (int) offset, (int) length );
+			} else {
+				transfer( bodyFile, offset, length, ostream, socket );
+			}
+		}
+		ostream.flush();
+		return true;
+	}
+
+	/**
+	 * Returns the entity tag of the gzip variant of the file with the given entity tag. The tag is
+	 * weak, since a regenerated variant is not guaranteed to be byte-for-byte identical.
+	 */
+	private static String gzipEtag( String identityEtag ) {
+		return "W/" + identityEtag.substring( 0, identityEtag.length() - 1 ) + "-gz\"";
+	}
+
+	private void appendCommonHeaders( HttpHeadBuilder head, String etag, String lastModifiedDate, boolean close ) {
+		head.appendHeader( "Server", "Jolie" );
+		head.appendHeader( "ETag", etag );
+		head.appendHeader( "Last-Modified", lastModifiedDate );
+		head.appendHeader( "Accept-Ranges", "bytes" );
+		if( precompressed ) {
+			head.appendHeader( "Vary", "Accept-Encoding" );
+		}
+		if( close ) {
+			head.appendHeader( "Connection", "close" );
+		}
+	}
+
+	private Path resolve( String requestPath ) {
+		String path = HttpUtils.cutBeforeQuerystring( requestPath );
+		if( !path.startsWith( prefix ) && !(path + "/").equals( prefix ) ) {
+			return null;
+		}
+		path = path.length() > prefix.length() ? path.substring( prefix.length() ) : "";
+		try {
+			// '+' is a literal in paths, unlike in query strings
+			path = URLDecoder.decode( path.replace( "+", "%2B" ), StandardCharsets.UTF_8 );
+		} catch( IllegalArgumentException e ) {
+			return null;
+		}
+		if( path.indexOf( '\0' ) >= 0 ) {
+			return null;
+		}
+		Path file;
+		try {
+			file = root.resolve( path ).normalize();
+		} catch( RuntimeException e ) {
+			return null;
+		}
+		if( !file.startsWith( root ) ) {
+			return null;
+		}
+		if( Files.isDirectory( file ) ) {
+			if( index == null ) {
+				return null;
+			}
+			file = file.resolve( index );
+		}
+		// Symbolic links under the root may point outside of it
+		try {
+			file = file.toRealPath();
+		} catch( IOException e ) {
+			return null;
+		}
+		return file.startsWith( root ) && Files.isRegularFile( file ) ? file : null;
+	}
+
+	private static boolean notModified( HttpMessage request, String etag, long lastModified ) {
+		final String ifNoneMatch = request.getProperty( HttpHeaderNames.IF_NONE_MATCH );
+		if( ifNoneMatch != null ) {
+			return HttpResponseCache.matches( ifNoneMatch, etag );
+		}
+		final String ifModifiedSince = request.getProperty( HttpHeaderNames.IF_MODIFIED_SINCE );
+		if( ifModifiedSince != null ) {
+			try {
+				final long since = ZonedDateTime.parse( ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME )
+					.toInstant().toEpochMilli();
+				return lastModified / 1000 <= since / 1000;
+			} catch( DateTimeParseException e ) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Parses a Range header.
+	 *
+	 * @return the first and last byte positions, an empty array if the range cannot be satisfied, or
+	 *         null if the header should be ignored (unsupported unit or multiple ranges)
+	 */
+	static long[] parseRange( String header, long size ) {
+		header = header.trim();
+		if( !header.startsWith( "bytes=" ) || header.indexOf( ',' ) >= 0 ) {
+			return null;
+		}
+		final String spec = header.substring( 6 ).trim();
+		final int dash = spec.indexOf( '-' );
+		if( dash < 0 ) {
+			return null;
+		}
+		try {
+			final long first;
+			long last;
+			if( dash == 0 ) {
+				final long suffix = Long.parseLong( spec.substring( 1 ) );
+				if( suffix <= 0 || size == 0 ) {
+					return new long[ 0 ];
+				}
+				first = Math.max( 0, size - suffix );
+				last = size - 1;
+			} else {
+				first = Long.parseLong( spec.substring( 0, dash ) );
+				last = dash == spec.length() - 1 ? size - 1 : Long.parseLong( spec.substring( dash + 1 ) );
+				if( last < first ) {
+					return null;
+				}
+				if( first >= size ) {
+					return new long[ 0 ];
+				}
+				last = Math.min( last, size - 1 );
+			}
+			return new long[] { first, last };
+		} catch( NumberFormatException e ) {
+			return null;
+		}
+	}
+
+	private static boolean acceptsGzip( HttpMessage request ) {
+		final String acceptEncoding = request.getProperty( HttpHeaderNames.ACCEPT_ENCODING );
+		return acceptEncoding != null && acceptEncoding.toLowerCase( Locale.ROOT ).contains( "gzip" );
+	}
+
+	private static String contentType( Path file ) {
+		final String name = file.getFileName().toString();
+		final int dot = name.lastIndexOf( '.' );
+		if( dot >= 0 ) {
+			final String type = CONTENT_TYPES.get( name.substring( dot + 1 ).toLowerCase( Locale.ROOT ) );
+			if( type != null ) {
+				return type;
+			}
+		}
+		try {
+			final String type = Files.probeContentType( file );
+			if( type != null ) {
+				return type;
+			}
+		} catch( IOException e ) {
+			// fall back to the default below
+		}
+		return HttpUtils.ContentTypes.APPLICATION_OCTET_STREAM;
+	}
+
+	private static boolean isCompressible( String contentType ) {
+		return contentType.startsWith( "text/" ) || contentType.startsWith( "application/javascript" )
+			|| contentType.startsWith( "application/json" ) || contentType.startsWith( "application/xml" )
+			|| contentType.startsWith( "image/svg+xml" ) || contentType.startsWith( "application/wasm" );
+	}
+
+	/**
+	 * Returns an up-to-date gzip variant of the given file: either a sibling .gz file or one generated
+	 * into the gzip cache directory.
+	 */
+	private Path gzipVariant( Path file, long size, long lastModified, String contentType )
+		throws IOException {
+		final Path sibling = file.resolveSibling( file.getFileName() + ".gz" );
+		if( Files.isRegularFile( sibling ) && Files.getLastModifiedTime( sibling ).toMillis() >= lastModified ) {
+			return sibling;
+		}
+		if( gzipCacheDirectory == null || size < GZIP_MIN_SIZE || !isCompressible( contentType ) ) {
+			return null;
+		}
+		final Path cached = gzipCacheDirectory.resolve( root.relativize( file ).toString() + ".gz" ).normalize();
+		if( !cached.startsWith( gzipCacheDirectory ) ) {
+			return null;
+		}
+		if( Files.isRegularFile( cached ) && Files.getLastModifiedTime( cached ).toMillis() == lastModified ) {
+			return cached;
+		}
+		Files.createDirectories( cached.getParent() );
+		final Path tmp = Files.createTempFile( cached.getParent(), "jolie-gzip", ".tmp" );
+		try {
+			try( OutputStream os = new GZIPOutputStream( Files.newOutputStream( tmp ) ) ) {
+				Files.copy( file, os );
+			}
+			Files.setLastModifiedTime( tmp, FileTime.fromMillis( lastModified ) );
+			Files.move( tmp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		} finally {
+			Files.deleteIfExists( tmp );
+		}
+		return cached;
+	}
+
+	private byte[] hotContent( Path file, long size, long lastModified )
+		throws IOException {
+		if( size > hotFileMaxSize || size > hotCacheCapacity ) {
+			return null;
+		}
+		synchronized( hotFiles ) {
+			final HotFile hot = hotFiles.get( file );
+			if( hot != null && hot.lastModified == lastModified && hot.content.length == size ) {
+				return hot.content;
+			}
+		}
+		final byte[] content = Files.readAllBytes( file );
+		if( content.length != size ) {
+			// The file is being modified: do not cache it
+			return content;
+		}
+		synchronized( hotFiles ) {
+			final HotFile old = hotFiles.put( file, new HotFile( content, lastModified ) );
+			if( old != null ) {
+				hotCacheSize -= old.content.length;
+			}
+			hotCacheSize += content.length;
+			final Iterator< HotFile > it = hotFiles.values().iterator();
+			while( hotCacheSize > hotCacheCapacity && it.hasNext() ) {
+				hotCacheSize -= it.next().content.length;
+				it.remove();
+			}
+		}
+		return content;
+	}
+
+	private static void transfer( Path file, long offset, long length, OutputStream ostream,
+		WritableByteChannel socket )
+		throws IOException {
+		try( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) ) {
+			if( socket != null ) {
+				ostream.flush();
+				while( length > 0 ) {
+					final long n = channel.transferTo( offset, length, socket );
+					if( n <= 0 ) {
+						throw new IOException( "File " + file + " was truncated while being sent" );
+					}
+					offset += n;
+					length -= n;
+				}
+			} else {
+				final WritableByteChannel out = Channels.newChannel( ostream );
+				final ByteBuffer buffer = ByteBuffer.allocate( (int) Math.min( length, 64 * 1024 ) );
+				while( length > 0 ) {
+					buffer.clear();
+					if( buffer.remaining() > length ) {
+						buffer.limit( (int) length );
+					}
+					final int n = channel.read( buffer, offset );
+					if( n < 0 ) {
+						throw new IOException( "File " + file + " was truncated while being sent" );
+					}
+					buffer.flip();
+					while( buffer.hasRemaining() ) {
+						out.write( buffer );
+					}
+					offset += n;
+					length -= n;
+				}
+			}
+		}
+	}
+
+	private static String formatDate( long millis ) {
+		return DateTimeFormatter.RFC_1123_DATE_TIME
+			.format( ZonedDateTime.ofInstant( Instant.ofEpochMilli( millis ), ZoneOffset.UTC ) );
+	}
+}
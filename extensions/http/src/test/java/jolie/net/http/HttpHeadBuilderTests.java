@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package jolie.net.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+class HttpHeadBuilderTests {
+	@Test
+	void testAppendsNumbers() {
+		final HttpHeadBuilder builder = new HttpHeadBuilder();
+		builder.append( 0 ).append( ' ' ).append( 42 ).append( ' ' ).append( -7L ).append( ' ' )
+			.append( Long.MAX_VALUE ).append( ' ' ).append( Long.MIN_VALUE );
+		assertEquals( "0 42 -7 " + Long.MAX_VALUE + " " + Long.MIN_VALUE, builder.toString() );
+	}
+
+	@Test
+	void testEncodesUtf8() {
+		final String text = "café ☕ 😀";
+		final HttpHeadBuilder builder = new HttpHeadBuilder( 4 );
+		builder.append( text ).append( 'é' );
+		assertArrayEquals( (text + "é").getBytes( StandardCharsets.UTF_8 ), builder.toByteArray() );
+
+		// unpaired surrogates are replaced like String.getBytes does
+		final String broken = "a\uD83Db\uDE00c";
+		assertArrayEquals( broken.getBytes( StandardCharsets.UTF_8 ),
+			new HttpHeadBuilder().append( broken ).toByteArray() );
+		assertEquals( "bc", new HttpHeadBuilder().append( "abcd", 1, 3 ).toString() );
+	}
+
+	@Test
+	void testBuildsHeads()
+		throws IOException {
+		final HttpHeadBuilder builder = new HttpHeadBuilder();
+		builder.append( "POST /orders HTTP/1.1" ).crlf()
+			.appendHeader( "Host", "localhost" )
+			.appendHeader( "X-Note", "naïve" )
+			.append( "Content-Length: " ).append( 5 ).crlf()
+			.crlf();
+		final String expected =
+			"POST /orders HTTP/1.1\r\nHost: localhost\r\nX-Note: naïve\r\nContent-Length: 5\r\n\r\n";
+		assertEquals( expected, builder.toString() );
+		assertEquals( expected.getBytes( StandardCharsets.UTF_8 ).length, builder.length() );
+
+		final ByteArrayOutputStream written = new ByteArrayOutputStream();
+		builder.writeTo( written );
+		written.write( "hello".getBytes( StandardCharsets.US_ASCII ) );
+		final HttpMessage message = new HttpParser( new ByteArrayInputStream( written.toByteArray() ) ).parse();
+		assertEquals( HttpMessage.Type.POST, message.type() );
+		assertEquals( "localhost", message.getProperty( "host" ) );
+		// header values are read back as ISO-8859-1
+		assertEquals( new String( "naïve".getBytes( StandardCharsets.UTF_8 ), StandardCharsets.ISO_8859_1 ),
+			message.getProperty( "x-note" ) );
+		assertArrayEquals( "hello".getBytes( StandardCharsets.US_ASCII ), message.content() );
+	}
+
+	@Test
+	void testReset() {
+		final HttpHeadBuilder builder = new HttpHeadBuilder();
+		builder.append( "x".repeat( 64 * 1024 ) );
+		builder.reset();
+		assertEquals( 0, builder.length() );
+		assertEquals( "", builder.toString() );
+		builder.appendHeader( "Host", "localhost" );
+		assertEquals( "Host: localhost\r\n", builder.toString() );
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package jolie.net.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class HttpParserTests {
+	@Test
+	void testRequestLine()
+		throws IOException {
+		final HttpMessage message = parse( "GET /orders/a%20b?id=1 HTTP/1.1\r\nHost: localhost\r\n\r\n" );
+		assertEquals( HttpMessage.Type.GET, message.type() );
+		assertEquals( "/orders/a b?id=1", message.requestPath() );
+		assertEquals( HttpMessage.Version.HTTP_1_1, message.version() );
+		assertEquals( "localhost", message.getProperty( "Host" ) );
+
+		// empty lines before the start line are ignored, and the protocol name is read regardless of case
+		final HttpMessage old = parse( "\r\n\r\nDELETE /orders/1 http/1.0\r\n\r\n" );
+		assertEquals( HttpMessage.Type.DELETE, old.type() );
+		assertEquals( HttpMessage.Version.HTTP_1_0, old.version() );
+
+		assertThrows( UnsupportedMethodException.class, () -> parse( "BREW /pot HTTP/1.1\r\n\r\n" ) );
+		assertThrows( UnsupportedHttpVersionException.class, () -> parse( "GET / HTTP/2.0\r\n\r\n" ) );
+		assertThrows( UnsupportedHttpVersionException.class, () -> parse( "GET /\r\n\r\n" ) );
+	}
+
+	@Test
+	void testStatusLine()
+		throws IOException {
+		final HttpMessage message = parse( "HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\n\r\n" );
+		assertTrue( message.isResponse() );
+		assertEquals( 404, message.statusCode() );
+		assertEquals( "Not Found", message.reason() );
+
+		final HttpMessage lowerCase = parse( "http/1.0 204\r\n\r\n" );
+		assertEquals( 204, lowerCase.statusCode() );
+		assertEquals( HttpMessage.Version.HTTP_1_0, lowerCase.version() );
+		assertEquals( "", lowerCase.reason() );
+	}
+
+	@Test
+	void testHeaderFields()
+		throws IOException {
+		final HttpMessage message = parse( "GET / HTTP/1.1\r\n"
+			+ "X-Padded: \t value with spaces \t\r\n"
+			+ "X-Repeated: first\r\n"
+			+ "x-repeated: second\r\n"
+			+ "X-Empty:\r\n"
+			+ "User-Agent: test-client/1.0\r\n"
+			+ "\r\n" );
+		assertEquals( "value with spaces", message.getProperty( "x-padded" ) );
+		// as with any map of properties, the last occurrence of a header wins
+		assertEquals( "second", message.getProperty( "X-REPEATED" ) );
+		assertTrue( message.hasProperty( "x-empty" ) );
+		assertEquals( "", message.getProperty( "x-empty" ) );
+		assertEquals( "test-client/1.0", message.userAgent() );
+		assertEquals( "test-client/1.0", message.getProperty( "user-agent" ) );
+		assertNull( message.getProperty( "x-missing" ) );
+
+		assertThrows( IOException.class, () -> parse( "GET / HTTP/1.1\r\n: no name\r\n\r\n" ) );
+		assertThrows( IOException.class, () -> parse( "GET / HTTP/1.1\r\nX-Name : value\r\n\r\n" ) );
+	}
+
+	@Test
+	void testFoldedHeaderFields()
+		throws IOException {
+		final HttpMessage message = parse( "GET / HTTP/1.1\r\n"
+			+ " ignored line before the first field\r\n"
+			+ "X-Folded: first  \r\n"
+			+ "   second\r\n"
+			+ "\tthird\r\n"
+			+ "X-Next: next\r\n"
+			+ "X-Empty-First:\r\n"
+			+ " continued\r\n"
+			+ "\r\n" );
+		assertEquals( "first second third", message.getProperty( "x-folded" ) );
+		assertEquals( "next", message.getProperty( "x-next" ) );
+		assertEquals( "continued", message.getProperty( "x-empty-first" ) );
+		assertFalse( message.hasProperty( "ignored line before the first field" ) );
+	}
+
+	@Test
+	void testCookies()
+		throws IOException {
+		final HttpMessage request = parse( "GET / HTTP/1.1\r\nCookie: session=abc; theme=dark;flag\r\n\r\n" );
+		assertEquals( Map.of( "session", "abc", "theme", "dark" ), request.cookies() );
+
+		final HttpMessage response = parse( "HTTP/1.1 200 OK\r\n"
+			+ "Set-Cookie: session=abc; Path=/orders; Domain=example.org; Expires=Wed, 21 Oct 2026 07:28:00 GMT;secure\r\n"
+			+ "Set-Cookie: flag\r\n"
+			+ "Content-Length: 0\r\n"
+			+ "\r\n" );
+		assertEquals( 2, response.setCookies().size() );
+		final HttpMessage.Cookie session = response.setCookies().get( 0 );
+		assertEquals( "session", session.name() );
+		assertEquals( "abc", session.value() );
+		assertEquals( "/orders", session.path() );
+		assertEquals( "example.org", session.domain() );
+		assertEquals( "Wed, 21 Oct 2026 07:28:00 GMT", session.expirationDate() );
+		assertTrue( session.secure() );
+		assertEquals( "flag", response.setCookies().get( 1 ).name() );
+		assertEquals( "", response.setCookies().get( 1 ).value() );
+	}
+
+	@Test
+	void testChunkedBodyWithTrailers()
+		throws IOException {
+		final HttpMessage message = parse( "POST /upload HTTP/1.1\r\n"
+			+ "Transfer-Encoding: chunked\r\n"
+			+ "\r\n"
+			+ "5\r\nhello\r\n"
+			+ "7;name=value\r\n, world\r\n"
+			+ "0\r\n"
+			+ "X-Checksum: 42\r\n"
+			+ "\r\n" );
+		assertArrayEquals( "hello, world".getBytes( StandardCharsets.US_ASCII ), message.content() );
+		assertEquals( "42", message.getProperty( "x-checksum" ) );
+	}
+
+	@Test
+	void testHeaderValuesOutliveBufferGrowth()
+		throws IOException {
+		// the head buffer starts small: values read before it grows must not be affected by the growth
+		final String large = "x".repeat( 4000 );
+		final HttpMessage message = parse( "GET / HTTP/1.1\r\n"
+			+ "X-First: first value\r\n"
+			+ "X-Large: " + large + "\r\n"
+			+ "X-Last: last value\r\n"
+			+ "\r\n" );
+		assertEquals( "first value", message.getProperty( "x-first" ) );
+		assertEquals( large, message.getProperty( "x-large" ) );
+		assertEquals( "last value", message.getProperty( "x-last" ) );
+
+		final Map< String, String > properties = message.properties().stream()
+			.collect( Collectors.toMap( Map.Entry::getKey, Map.Entry::getValue ) );
+		assertEquals( Map.of( "x-first", "first value", "x-large", large, "x-last", "last value" ), properties );
+	}
+
+	@Test
+	void testHeaderValuesAreReadAsLatin1()
+		throws IOException {
+		final byte[] head = "GET / HTTP/1.1\r\nX-Name: café\r\n\r\n".getBytes( StandardCharsets.ISO_8859_1 );
+		final HttpMessage message = new HttpParser( new ByteArrayInputStream( head ) ).parse();
+		assertEquals( "café", message.getProperty( "x-name" ) );
+	}
+
+	@Test
+	void testMaxHeadSize()
+		throws IOException {
+		final String request = "GET / HTTP/1.1\r\nX-Large: " + "x".repeat( 100 * 1024 ) + "\r\n\r\n";
+		final HttpMessageTooLargeException e = assertThrows( HttpMessageTooLargeException.class,
+			() -> new HttpParser( stream( request ), 1024 ).parse() );
+		assertEquals( HttpMessageTooLargeException.HEADER_FIELDS_TOO_LARGE, e.statusCode() );
+
+		// parsers created without a limit read heads of any size
+		assertEquals( 100 * 1024, parse( request ).getProperty( "x-large" ).length() );
+	}
+
+	private static ByteArrayInputStream stream( String message ) {
+		return new ByteArrayInputStream( message.getBytes( StandardCharsets.ISO_8859_1 ) );
+	}
+
+	private static HttpMessage parse( String message )
+		throws IOException {
+		return new HttpParser( stream( message ) ).parse();
+	}
+}
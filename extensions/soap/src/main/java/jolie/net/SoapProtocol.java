@@ -20,19 +20,17 @@ package jolie.net;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.StringReader;
-import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -46,7 +44,6 @@ import javax.wsdl.OperationType;
 import javax.wsdl.Part;
 import javax.wsdl.Port;
 import javax.wsdl.Service;
-import javax.wsdl.Types;
 import javax.wsdl.WSDLException;
 import javax.wsdl.extensions.ExtensibilityElement;
 import javax.wsdl.extensions.soap.SOAPOperation;
@@ -55,16 +52,8 @@ import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -74,7 +63,6 @@ import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
-import com.ibm.wsdl.extensions.schema.SchemaImpl;
 import com.ibm.wsdl.extensions.soap.SOAPBodyImpl;
 import com.ibm.wsdl.extensions.soap.SOAPHeaderImpl;
 import com.sun.xml.xsom.XSAttributeDecl;
@@ -85,11 +73,8 @@ import com.sun.xml.xsom.XSElementDecl;
 import com.sun.xml.xsom.XSModelGroup;
 import com.sun.xml.xsom.XSModelGroupDecl;
 import com.sun.xml.xsom.XSParticle;
-import com.sun.xml.xsom.XSSchema;
-import com.sun.xml.xsom.XSSchemaSet;
 import com.sun.xml.xsom.XSTerm;
 import com.sun.xml.xsom.XSType;
-import com.sun.xml.xsom.parser.XSOMParser;
 
 import jakarta.xml.soap.Detail;
 import jakarta.xml.soap.DetailEntry;
@@ -97,7 +82,6 @@ import jakarta.xml.soap.MessageFactory;
 import jakarta.xml.soap.Name;
 import jakarta.xml.soap.SOAPBody;
 import jakarta.xml.soap.SOAPBodyElement;
-import jakarta.xml.soap.SOAPConstants;
 import jakarta.xml.soap.SOAPElement;
 import jakarta.xml.soap.SOAPEnvelope;
 import jakarta.xml.soap.SOAPException;
@@ -116,6 +100,8 @@ import jolie.net.http.Method;
 import jolie.net.http.UnsupportedMethodException;
 import jolie.net.ports.Interface;
 import jolie.net.protocols.SequentialCommProtocol;
+import jolie.net.soap.CompiledSchemaSet;
+import jolie.net.soap.SchemaSetCache;
 import jolie.net.soap.WSDLCache;
 import jolie.runtime.ByteArray;
 import jolie.runtime.FaultException;
@@ -143,13 +129,12 @@ public class SoapProtocol extends SequentialCommProtocol implements HttpUtils.Pr
 	private String inputId = null;
 	private final Interpreter interpreter;
 	private final MessageFactory messageFactory;
-	private XSSchemaSet schemaSet = null;
+	private CompiledSchemaSet schemaSet = null;
 	private final URI uri;
 	private final boolean inInputPort;
 	private Definition wsdlDefinition = null;
 	private Port wsdlPort = null;
-	private final TransformerFactory transformerFactory;
-	private final Map< String, String > namespacePrefixMap = new HashMap<>();
+	private Map< String, String > namespacePrefixMap = Collections.emptyMap();
 	private String encoding;
 	private final WSDLCache wsdlCache;
 
@@ -181,79 +166,28 @@ public class SoapProtocol extends SequentialCommProtocol implements HttpUtils.Pr
 		VariablePath configurationPath,
 		URI uri,
 		boolean inInputPort,
-		Interpreter interpreter )
-		throws SOAPException, WSDLException {
+		Interpreter interpreter,
+		MessageFactory messageFactory )
+		throws WSDLException {
 		super( configurationPath );
 		this.uri = uri;
 		this.inInputPort = inInputPort;
-		this.transformerFactory = TransformerFactory.newInstance();
 		this.interpreter = interpreter;
-		this.messageFactory = MessageFactory.newInstance( SOAPConstants.SOAP_1_1_PROTOCOL );
-		this.wsdlCache = new WSDLCache();
+		this.messageFactory = messageFactory;
+		this.wsdlCache = WSDLCache.getInstance();
 	}
 
-	private void parseSchemaElement( Definition definition, Element element, XSOMParser schemaParser )
-		throws IOException {
-		try {
-			Transformer transformer = transformerFactory.newTransformer();
-			transformer.setOutputProperty( OutputKeys.INDENT, "yes" );
-			StringWriter sw = new StringWriter();
-			StreamResult result = new StreamResult( sw );
-			DOMSource source = new DOMSource( element );
-			transformer.transform( source, result );
-			InputSource schemaSource = new InputSource( new StringReader( sw.toString() ) );
-			schemaSource.setSystemId( definition.getDocumentBaseURI() );
-			schemaParser.parse( schemaSource );
-		} catch( SAXException | TransformerException e ) {
-			throw new IOException( e );
-		}
-	}
-
-	@SuppressWarnings( "unchecked" )
-	private void parseWSDLTypes( XSOMParser schemaParser )
-		throws IOException {
-		Definition definition = getWSDLDefinition();
-		if( definition != null ) {
-			Types types = definition.getTypes();
-			if( types != null ) {
-				List< ExtensibilityElement > list = types.getExtensibilityElements();
-				for( ExtensibilityElement element : list ) {
-					if( element instanceof SchemaImpl ) {
-						Element schemaElement = ((SchemaImpl) element).getElement();
-						Map< String, String > namespaces = definition.getNamespaces();
-						for( Entry< String, String > entry : namespaces.entrySet() ) {
-							if( entry.getKey().equals( "xmlns" ) || entry.getKey().trim().isEmpty() ) {
-								continue;
-							}
-							if( schemaElement.getAttribute( "xmlns:" + entry.getKey() ).isEmpty() ) {
-								schemaElement.setAttribute( "xmlns:" + entry.getKey(), entry.getValue() );
-							}
-						}
-						parseSchemaElement( definition, schemaElement, schemaParser );
-					}
-				}
-			}
-		}
-	}
-
-	private XSSchemaSet getSchemaSet()
+	private CompiledSchemaSet getSchemaSet()
 		throws IOException, SAXException {
 		if( schemaSet == null ) {
-			XSOMParser schemaParser = new XSOMParser();
-			ValueVector vec = getParameterVector( "schema" );
-			if( vec.size() > 0 ) {
-				for( Value v : vec ) {
-					schemaParser.parse( new File( v.strValue() ) );
-				}
+			List< String > schemaFiles = new ArrayList<>();
+			for( Value v : getParameterVector( "schema" ) ) {
+				schemaFiles.add( v.strValue() );
 			}
-			parseWSDLTypes( schemaParser );
-			schemaSet = schemaParser.getResult();
-			String nsPrefix = "jolie";
-			int i = 1;
-			for( XSSchema schema : schemaSet.getSchemas() ) {
-				if( !schema.getTargetNamespace().equals( XMLConstants.W3C_XML_SCHEMA_NS_URI ) ) {
-					namespacePrefixMap.put( schema.getTargetNamespace(), nsPrefix + i++ );
-				}
+			schemaSet = SchemaSetCache.getInstance().get( schemaFiles,
+				hasParameter( "wsdl" ) ? getStringParameter( "wsdl" ) : null );
+			if( schemaSet != null ) {
+				namespacePrefixMap = schemaSet.namespacePrefixes();
 			}
 		}
 
@@ -380,7 +314,7 @@ public class SoapProtocol extends SequentialCommProtocol implements HttpUtils.Pr
 
 	private void termProcessing( Value value, SOAPElement element, SOAPEnvelope envelope, boolean first,
 		XSTerm currTerm, int getMaxOccur,
-		XSSchemaSet sSet, String messageNamespace )
+		CompiledSchemaSet sSet, String messageNamespace )
 		throws SOAPException {
 		Value currValue = value.clone();
 		if( currTerm.isElementDecl() ) {
@@ -420,7 +354,7 @@ public class SoapProtocol extends SequentialCommProtocol implements HttpUtils.Pr
 		SOAPEnvelope envelope,
 		boolean first,
 		XSModelGroup modelGroup,
-		XSSchemaSet sSet,
+		CompiledSchemaSet sSet,
 		String messageNamespace )
 		throws SOAPException {
 
@@ -444,7 +378,7 @@ public class SoapProtocol extends SequentialCommProtocol implements HttpUtils.Pr
 		SOAPElement element,
 		SOAPEnvelope envelope,
 		boolean first, // Ugly fix! This should be removed as soon as another option arises.
-		XSSchemaSet sSet,
+		CompiledSchemaSet sSet,
 		String messageNamespace )
 		throws SOAPException {
 
@@ -797,7 +731,7 @@ public class SoapProtocol extends SequentialCommProtocol implements HttpUtils.Pr
 					detail.addDetailEntry( soapEnvelope.createName( f.faultName(), null, messageNamespace ) );
 				valueToSOAPElement( f.value(), de, soapEnvelope );
 			} else {
-				XSSchemaSet sSet = getSchemaSet();
+				CompiledSchemaSet sSet = getSchemaSet();
 				XSElementDecl elementDecl;
 				String messageRootElementName = getOutputMessageRootElementName( message.operationName() );
 
@@ -1282,18 +1216,17 @@ public class SoapProtocol extends SequentialCommProtocol implements HttpUtils.Pr
 
 					ValueVector schemaPaths = getParameterVector( "schema" );
 					if( schemaPaths.size() > 0 ) {
-						List< Source > sources = new LinkedList<>();
+						List< String > sources = new ArrayList<>();
 						Value schemaPath;
 						for( int i = 0; i < schemaPaths.size(); i++ ) {
 							schemaPath = schemaPaths.get( i );
 							if( schemaPath.getChildren( "validate" ).first().intValue() > 0 ) {
-								sources.add( new StreamSource( new File( schemaPaths.get( i ).strValue() ) ) );
+								sources.add( schemaPath.strValue() );
 							}
 						}
 
 						if( !sources.isEmpty() ) {
-							Schema schema = SchemaFactory.newInstance( XMLConstants.W3C_XML_SCHEMA_NS_URI )
-								.newSchema( sources.toArray( new Source[ 0 ] ) );
+							Schema schema = SchemaSetCache.getInstance().getValidationSchema( sources );
 							schema.newValidator()
 								.validate( new DOMSource( soapMessage.getSOAPBody().getFirstChild() ) );
 						}
@@ -26,6 +26,8 @@ import java.net.URI;
 
 import javax.wsdl.WSDLException;
 
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.SOAPConstants;
 import jakarta.xml.soap.SOAPException;
 import jolie.net.ext.CommProtocolFactory;
 import jolie.net.protocols.CommProtocol;
@@ -51,15 +53,27 @@ import jolie.runtime.VariablePath;
 	"xercesImpl.jar"
 } )
 public class SoapProtocolFactory extends CommProtocolFactory {
+	private MessageFactory messageFactory = null;
+
 	public SoapProtocolFactory( CommCore commCore ) {
 		super( commCore );
 	}
 
+	// shared by all the protocol instances, as creating a factory is expensive
+	private synchronized MessageFactory messageFactory()
+		throws SOAPException {
+		if( messageFactory == null ) {
+			messageFactory = MessageFactory.newInstance( SOAPConstants.SOAP_1_1_PROTOCOL );
+		}
+		return messageFactory;
+	}
+
 	@Override
 	public CommProtocol createInputProtocol( VariablePath configurationPath, URI location )
 		throws IOException {
 		try {
-			return new SoapProtocol( configurationPath, location, true, commCore().interpreter() );
+			return new SoapProtocol( configurationPath, location, true, commCore().interpreter(),
+				messageFactory() );
 		} catch( SOAPException | WSDLException e ) {
 			throw new IOException( e );
 		}
@@ -69,7 +83,8 @@ public class SoapProtocolFactory extends CommProtocolFactory {
 	public CommProtocol createOutputProtocol( VariablePath configurationPath, URI location )
 		throws IOException {
 		try {
-			return new SoapProtocol( configurationPath, location, false, commCore().interpreter() );
+			return new SoapProtocol( configurationPath, location, false, commCore().interpreter(),
+				messageFactory() );
 		} catch( SOAPException | WSDLException e ) {
 			throw new IOException( e );
 		}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.net.soap;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.XMLConstants;
+
+import com.sun.xml.xsom.XSComplexType;
+import com.sun.xml.xsom.XSElementDecl;
+import com.sun.xml.xsom.XSSchema;
+import com.sun.xml.xsom.XSSchemaSet;
+
+/**
+ * A parsed set of XML schemas, together with the tables the SOAP protocol looks declarations up in.
+ * Instances are immutable and shared by all the protocol instances that use the same schemas.
+ */
+public final class CompiledSchemaSet {
+	private final XSSchemaSet schemaSet;
+	private final Map< String, String > namespacePrefixes;
+	private final Map< String, Map< String, XSElementDecl > > elementDecls;
+	private final Map< String, Map< String, XSComplexType > > complexTypes;
+
+	CompiledSchemaSet( XSSchemaSet schemaSet ) {
+		this.schemaSet = schemaSet;
+		final Map< String, String > prefixes = new HashMap<>();
+		final Map< String, Map< String, XSElementDecl > > elements = new HashMap<>();
+		final Map< String, Map< String, XSComplexType > > types = new HashMap<>();
+		String nsPrefix = "jolie";
+		int i = 1;
+		for( XSSchema schema : schemaSet.getSchemas() ) {
+			if( !schema.getTargetNamespace().equals( XMLConstants.W3C_XML_SCHEMA_NS_URI ) ) {
+				prefixes.put( schema.getTargetNamespace(), nsPrefix + i++ );
+			}
+			elements.put( schema.getTargetNamespace(), new HashMap<>( schema.getElementDecls() ) );
+			types.put( schema.getTargetNamespace(), new HashMap<>( schema.getComplexTypes() ) );
+		}
+		this.namespacePrefixes = Collections.unmodifiableMap( prefixes );
+		this.elementDecls = elements;
+		this.complexTypes = types;
+	}
+
+	public XSSchemaSet schemaSet() {
+		return schemaSet;
+	}
+
+	/**
+	 * Returns the prefixes assigned to the target namespaces of the schemas (except the XML Schema
+	 * namespace itself), by namespace.
+	 */
+	public Map< String, String > namespacePrefixes() {
+		return namespacePrefixes;
+	}
+
+	public XSElementDecl getElementDecl( String namespace, String name ) {
+		final Map< String, XSElementDecl > decls = elementDecls.get( namespace );
+		return decls == null ? null : decls.get( name );
+	}
+
+	public XSComplexType getComplexType( String namespace, String name ) {
+		final Map< String, XSComplexType > types = complexTypes.get( namespace );
+		return types == null ? null : types.get( name );
+	}
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.net.soap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.wsdl.Definition;
+import javax.wsdl.Types;
+import javax.wsdl.WSDLException;
+import javax.wsdl.extensions.ExtensibilityElement;
+import javax.xml.XMLConstants;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import com.ibm.wsdl.extensions.schema.SchemaImpl;
+import com.sun.xml.xsom.XSSchemaSet;
+import com.sun.xml.xsom.parser.XSOMParser;
+
+/**
+ * A process-wide cache of the XML schemas used by the SOAP protocol: the schema sets built from
+ * schema files and WSDL type sections, and the validation schemas built from schema files.
+ *
+ * Entries are identified by their sources. An entry is built again if one of its source files has
+ * been modified, or if the WSDL document it was built from has been read again by the
+ * {@link WSDLCache}.
+ */
+public class SchemaSetCache {
+	private static final SchemaSetCache INSTANCE = new SchemaSetCache();
+
+	private static class Key {
+		private final List< String > schemaFiles;
+		private final String wsdlUrl;
+
+		private Key( List< String > schemaFiles, String wsdlUrl ) {
+			this.schemaFiles = schemaFiles;
+			this.wsdlUrl = wsdlUrl;
+		}
+
+		@Override
+		public boolean equals( Object o ) {
+			if( !(o instanceof Key) ) {
+				return false;
+			}
+			final Key other = (Key) o;
+			return schemaFiles.equals( other.schemaFiles )
+				&& (wsdlUrl == null ? other.wsdlUrl == null : wsdlUrl.equals( other.wsdlUrl ));
+		}
+
+		@Override
+		public int hashCode() {
+			return schemaFiles.hashCode() * 31 + (wsdlUrl == null ? 0 : wsdlUrl.hashCode());
+		}
+	}
+
+	private static class SchemaSetEntry {
+		private final CompiledSchemaSet schemaSet;
+		private final long[] lastModified;
+		private final Definition definition;
+
+		private SchemaSetEntry( CompiledSchemaSet schemaSet, long[] lastModified, Definition definition ) {
+			this.schemaSet = schemaSet;
+			this.lastModified = lastModified;
+			this.definition = definition;
+		}
+	}
+
+	private static class ValidationEntry {
+		private final Schema schema;
+		private final long[] lastModified;
+
+		private ValidationEntry( Schema schema, long[] lastModified ) {
+			this.schema = schema;
+			this.lastModified = lastModified;
+		}
+	}
+
+	private final Map< Key, SchemaSetEntry > schemaSets = new HashMap<>();
+	private final Map< List< String >, ValidationEntry > validationSchemas = new HashMap<>();
+	private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+	private SchemaSetCache() {}
+
+	public static SchemaSetCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the schema set made of the given schema files and of the schemas in the types section of
+	 * the given WSDL document.
+	 *
+	 * @param wsdlUrl the URL of the WSDL document, or null
+	 * @return the schema set, or null if the schemas could not be parsed
+	 */
+	public CompiledSchemaSet get( List< String > schemaFiles, String wsdlUrl )
+		throws IOException, SAXException {
+		// Read outside of the lock of this cache: the WSDL cache has its own
+		final Definition definition;
+		try {
+			definition = wsdlUrl == null ? null : WSDLCache.getInstance().get( wsdlUrl );
+		} catch( WSDLException e ) {
+			throw new IOException( e );
+		}
+		return get( schemaFiles, wsdlUrl, definition );
+	}
+
+	private synchronized CompiledSchemaSet get( List< String > schemaFiles, String wsdlUrl, Definition definition )
+		throws IOException, SAXException {
+		final Key key = new Key( new ArrayList<>( schemaFiles ), wsdlUrl );
+		final long[] lastModified = lastModified( schemaFiles );
+		SchemaSetEntry entry = schemaSets.get( key );
+		if( entry == null || entry.definition != definition || !Arrays.equals( entry.lastModified, lastModified ) ) {
+			XSOMParser schemaParser = new XSOMParser();
+			for( String file : schemaFiles ) {
+				schemaParser.parse( new File( file ) );
+			}
+			if( definition != null ) {
+				parseWSDLTypes( definition, schemaParser );
+			}
+			XSSchemaSet schemaSet = schemaParser.getResult();
+			entry = new SchemaSetEntry( schemaSet == null ? null : new CompiledSchemaSet( schemaSet ), lastModified,
+				definition );
+			schemaSets.put( key, entry );
+		}
+		return entry.schemaSet;
+	}
+
+	/**
+	 * Returns the schema for validating messages against the given schema files.
+	 */
+	public synchronized Schema getValidationSchema( List< String > schemaFiles )
+		throws SAXException {
+		final long[] lastModified = lastModified( schemaFiles );
+		ValidationEntry entry = validationSchemas.get( schemaFiles );
+		if( entry == null || !Arrays.equals( entry.lastModified, lastModified ) ) {
+			List< Source > sources = new ArrayList<>( schemaFiles.size() );
+			for( String file : schemaFiles ) {
+				sources.add( new StreamSource( new File( file ) ) );
+			}
+			Schema schema = SchemaFactory.newInstance( XMLConstants.W3C_XML_SCHEMA_NS_URI )
+				.newSchema( sources.toArray( new Source[ 0 ] ) );
+			entry = new ValidationEntry( schema, lastModified );
+			validationSchemas.put( new ArrayList<>( schemaFiles ), entry );
+		}
+		return entry.schema;
+	}
+
+	private static long[] lastModified( List< String > files ) {
+		final long[] ret = new long[ files.size() ];
+		for( int i = 0; i < ret.length; i++ ) {
+			ret[ i ] = new File( files.get( i ) ).lastModified();
+		}
+		return ret;
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private void parseWSDLTypes( Definition definition, XSOMParser schemaParser )
+		throws IOException {
+		Types types = definition.getTypes();
+		if( types != null ) {
+			List< ExtensibilityElement > list = types.getExtensibilityElements();
+			for( ExtensibilityElement element : list ) {
+				if( element instanceof SchemaImpl ) {
+					// only modified while holding the lock of the cache: the definition is shared
+					Element schemaElement = ((SchemaImpl) element).getElement();
+					Map< String, String > namespaces = definition.getNamespaces();
+					for( Entry< String, String > entry : namespaces.entrySet() ) {
+						if( entry.getKey().equals( "xmlns" ) || entry.getKey().trim().isEmpty() ) {
+							continue;
+						}
+						if( schemaElement.getAttribute( "xmlns:" + entry.getKey() ).isEmpty() ) {
+							schemaElement.setAttribute( "xmlns:" + entry.getKey(), entry.getValue() );
+						}
+					}
+					parseSchemaElement( definition, schemaElement, schemaParser );
+				}
+			}
+		}
+	}
+
+	private void parseSchemaElement( Definition definition, Element element, XSOMParser schemaParser )
+		throws IOException {
+		try {
+			Transformer transformer = transformerFactory.newTransformer();
+			transformer.setOutputProperty( OutputKeys.INDENT, "yes" );
+			StringWriter sw = new StringWriter();
+			StreamResult result = new StreamResult( sw );
+			DOMSource source = new DOMSource( element );
+			transformer.transform( source, result );
+			InputSource schemaSource = new InputSource( new StringReader( sw.toString() ) );
+			schemaSource.setSystemId( definition.getDocumentBaseURI() );
+			schemaParser.parse( schemaSource );
+		} catch( SAXException | TransformerException e ) {
+			throw new IOException( e );
+		}
+	}
+}
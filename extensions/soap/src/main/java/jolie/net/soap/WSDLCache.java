@@ -21,8 +21,13 @@
 
 package jolie.net.soap;
 
-import java.util.HashMap;
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import javax.wsdl.Definition;
 import javax.wsdl.WSDLException;
 import javax.wsdl.factory.WSDLFactory;
@@ -31,37 +36,100 @@ import javax.wsdl.xml.WSDLReader;
 /**
  * Implements a WSDL document cache for the SOAP protocol.
  *
+ * The cache is shared by all the SOAP protocol instances of the process. Documents are identified
+ * by their URL; documents stored in local files are read again when their modification time
+ * changes. A document is read by the first thread asking for it, while the others asking for the
+ * same URL wait for the result: threads asking for other documents are not held up.
+ *
  * @author Fabrizio Montesi TODO: WSDL document removal after some time
  */
 public class WSDLCache {
-	// private static WSDLCache instance = null;
+	private static WSDLCache instance = null;
+
+	private static class Entry {
+		private final Definition definition;
+		private final long lastModified;
+
+		private Entry( Definition definition, long lastModified ) {
+			this.definition = definition;
+			this.lastModified = lastModified;
+		}
+	}
 
-	private final Map< String, Definition > cache;
+	private final Map< String, FutureTask< Entry > > cache;
 	private final WSDLFactory factory;
 
-	public WSDLCache()
+	private WSDLCache()
 		throws WSDLException {
-		cache = new HashMap<>();
+		cache = new ConcurrentHashMap<>();
 		factory = WSDLFactory.newInstance();
 	}
-	//
-	// public static synchronized WSDLCache getInstance()
-	// throws WSDLException {
-	// if( instance == null ) {
-	// instance = new WSDLCache();
-	// }
-	// return instance;
-	// }
 
-	public synchronized Definition get( String url )
+	public static synchronized WSDLCache getInstance()
 		throws WSDLException {
-		Definition definition = cache.get( url );
-		if( definition == null ) {
-			WSDLReader reader = factory.newWSDLReader();
-			reader.setFeature( "javax.wsdl.verbose", false );
-			definition = reader.readWSDL( url );
-			cache.put( url, definition );
+		if( instance == null ) {
+			instance = new WSDLCache();
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the parsed WSDL document at the given URL. The returned definition is shared: it must not
+	 * be modified.
+	 */
+	public Definition get( String url )
+		throws WSDLException {
+		while( true ) {
+			final long lastModified = lastModified( url );
+			final FutureTask< Entry > task =
+				cache.computeIfAbsent( url, key -> new FutureTask<>( () -> read( key, lastModified ) ) );
+			// Does nothing if another thread is reading the document already
+			task.run();
+			final Entry entry;
+			try {
+				entry = task.get();
+			} catch( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+				throw new WSDLException( WSDLException.OTHER_ERROR, "Interrupted while reading " + url, e );
+			} catch( ExecutionException e ) {
+				// Do not cache failures: the next request tries again
+				cache.remove( url, task );
+				if( e.getCause() instanceof WSDLException ) {
+					throw (WSDLException) e.getCause();
+				}
+				throw new WSDLException( WSDLException.OTHER_ERROR, e.getCause().getMessage(), e.getCause() );
+			}
+			if( entry.lastModified == lastModified ) {
+				return entry.definition;
+			}
+			// The file has been modified since it was read
+			cache.remove( url, task );
+		}
+	}
+
+	private Entry read( String url, long lastModified )
+		throws WSDLException {
+		WSDLReader reader = factory.newWSDLReader();
+		reader.setFeature( "javax.wsdl.verbose", false );
+		return new Entry( reader.readWSDL( url ), lastModified );
+	}
+
+	/**
+	 * Returns the modification time of the file at the given location, or 0 if the location is not a
+	 * local file.
+	 */
+	public static long lastModified( String location ) {
+		File file = null;
+		try {
+			URI uri = new URI( location );
+			if( uri.getScheme() == null || uri.getScheme().length() == 1 ) { // no scheme, or a Windows drive
+				file = new File( location );
+			} else if( "file".equals( uri.getScheme() ) ) {
+				file = new File( uri );
+			}
+		} catch( URISyntaxException | IllegalArgumentException e ) {
+			file = new File( location );
 		}
-		return definition;
+		return file == null ? 0L : file.lastModified();
 	}
 }
@@ -25,14 +25,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -57,20 +55,9 @@ import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import javax.activation.FileTypeMap;
 import javax.activation.MimetypesFileTypeMap;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 import org.snakeyaml.engine.v2.api.Load;
 import org.snakeyaml.engine.v2.api.LoadSettings;
 import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
-import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import com.sun.xml.xsom.XSSchemaSet;
 import com.sun.xml.xsom.parser.XSOMParser;
@@ -85,6 +72,8 @@ import jolie.runtime.Value;
 import jolie.runtime.ValueVector;
 import jolie.runtime.embedding.RequestResponse;
 import jolie.runtime.typing.Type;
+import jolie.xml.XmlValueReader;
+import jolie.xml.XmlValueWriter;
 
 /**
  *
@@ -94,17 +83,9 @@ import jolie.runtime.typing.Type;
 	"snakeyaml-engine.jar" } )
 public class FileService extends JavaService {
 	private final static Pattern FILE_KEYWORD_PATTERN = Pattern.compile( "(#+)file\\s+(.*)" );
-	private final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-	private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+	private final XmlValueReader xmlReader = new XmlValueReader( false, false );
 	private FileTypeMap fileTypeMap = FileTypeMap.getDefaultFileTypeMap();
 
-	public FileService()
-		throws ParserConfigurationException {
-		super();
-		documentBuilderFactory.setIgnoringElementContentWhitespace( true );
-		documentBuilderFactory.setFeature( "http://apache.org/xml/features/disallow-doctype-decl", true );
-	}
-
 	@RequestResponse
 	public String convertFromBinaryToBase64Value( Value value ) {
 		Interpreter.getInstance()
@@ -179,6 +160,26 @@ public class FileService extends JavaService {
 		JsUtils.parseJsonIntoValue( isr, value, strictEncoding );
 	}
 
+	/**
+	 * Reads a newline-delimited JSON file record by record. If an operation is given, each record is
+	 * sent to it as soon as it has been parsed and the result is the number of records; otherwise the
+	 * records are returned as "item" children.
+	 */
+	private void readNdJsonIntoValue( InputStream istream, Value value, Charset charset, boolean strictEncoding,
+		String operationName )
+		throws IOException {
+		final InputStreamReader isr =
+			new InputStreamReader( istream, charset == null ? StandardCharsets.UTF_8 : charset );
+		if( operationName == null ) {
+			JsUtils.parseNdJson( isr, strictEncoding, null, value.getChildren( "item" )::add );
+		} else {
+			// Waiting for each record to be acknowledged keeps a single record in memory at a time
+			final Embedder embedder = getEmbedder();
+			value.setValue( JsUtils.parseNdJson( isr, strictEncoding, null,
+				record -> embedder.callOneWay( operationName, record ) ) );
+		}
+	}
+
 	private static void readYaml( InputStream istream, Value value, boolean isStream )
 		throws IOException {
 		try {
@@ -232,37 +233,14 @@ public class FileService extends JavaService {
 
 	private void readXMLIntoValue( InputStream istream, Value value, Charset charset, boolean skipMixedElement )
 		throws IOException {
-		try {
-			DocumentBuilder builder = documentBuilderFactory.newDocumentBuilder();
-			InputSource src = new InputSource( new InputStreamReader( istream ) );
-			if( charset != null ) {
-				src.setEncoding( charset.name() );
-			}
-			Document doc = builder.parse( src );
-			jolie.xml.XmlUtils.documentToValue(
-				doc,
-				value.getFirstChild( doc.getDocumentElement().getNodeName() ),
-				skipMixedElement );
-		} catch( ParserConfigurationException | SAXException e ) {
-			throw new IOException( e );
-		}
+		xmlReader.readInto( istream, charset == null ? null : charset.name(), value, true, skipMixedElement );
 	}
 
 	private void readXMLIntoValueForStoring( InputStream istream, Value value, Charset charset )
 		throws IOException {
-		try {
-			DocumentBuilder builder = documentBuilderFactory.newDocumentBuilder();
-			InputSource src = new InputSource( new InputStreamReader( istream ) );
-			if( charset != null ) {
-				src.setEncoding( charset.name() );
-			}
-			Document doc = builder.parse( src );
-			jolie.xml.XmlUtils.storageDocumentToValue(
-				doc,
-				value.getFirstChild( doc.getDocumentElement().getNodeName() ) );
-		} catch( ParserConfigurationException | SAXException e ) {
-			throw new IOException( e );
-		}
+		Value document = Value.create();
+		String rootName = xmlReader.readStorage( istream, charset == null ? null : charset.name(), document );
+		value.getChildren( rootName ).add( document );
 	}
 
 	private static void readTextIntoValue( InputStream istream, long size, Value value, Charset charset )
@@ -455,6 +433,12 @@ public class FileService extends JavaService {
 					}
 					readJsonIntoValue( istream, retValue, charset, strictEncoding );
 					break;
+				case "ndjson":
+					istream = new BufferedInputStream( istream );
+					readNdJsonIntoValue( istream, retValue, charset,
+						"strict".equals( formatValue.firstChildOrDefault( "json_encoding", Value::strValue, "" ) ),
+						formatValue.firstChildOrDefault( "operation", Value::strValue, null ) );
+					break;
 				case "yaml":
 					istream = new BufferedInputStream( istream );
 					readYaml( istream, retValue,
@@ -569,38 +553,31 @@ public class FileService extends JavaService {
 			rootNameSpace = root.getFirstChild( NAMESPACE_ATTRIBUTE_NAME ).strValue();
 		}
 
-		try {
-			// XSType type = null;
-			if( schemaFilename != null ) {
-				try {
-					XSOMParser parser = new XSOMParser();
-					parser.parse( schemaFilename );
-					XSSchemaSet schemaSet = parser.getResult();
-					// if( schemaSet != null && schemaSet.getElementDecl( rootNameSpace, rootName ) != null ) {
-					// type = schemaSet.getElementDecl( rootNameSpace, rootName ).getType();
-					// } else
-					if( schemaSet == null || schemaSet.getElementDecl( rootNameSpace, rootName ) == null ) {
-						throw new IOException( "Root element " + rootName + " with namespace " + rootNameSpace
-							+ " not found in the schema " + schemaFilename );
-						// System.out.println( "Root element " + rootName + " with namespace " + rootNameSpace
-						// + " not found in the schema " + schemaFilename );
-					}
-				} catch( SAXException e ) {
-					throw new IOException( e );
+		// XSType type = null;
+		if( schemaFilename != null ) {
+			try {
+				XSOMParser parser = new XSOMParser();
+				parser.parse( schemaFilename );
+				XSSchemaSet schemaSet = parser.getResult();
+				// if( schemaSet != null && schemaSet.getElementDecl( rootNameSpace, rootName ) != null ) {
+				// type = schemaSet.getElementDecl( rootNameSpace, rootName ).getType();
+				// } else
+				if( schemaSet == null || schemaSet.getElementDecl( rootNameSpace, rootName ) == null ) {
+					throw new IOException( "Root element " + rootName + " with namespace " + rootNameSpace
+						+ " not found in the schema " + schemaFilename );
+					// System.out.println( "Root element " + rootName + " with namespace " + rootNameSpace
+					// + " not found in the schema " + schemaFilename );
 				}
+			} catch( SAXException e ) {
+				throw new IOException( e );
 			}
+		}
 
-			Document doc = documentBuilderFactory.newDocumentBuilder().newDocument();
-			Transformer transformer = transformerFactory.newTransformer();
-			jolie.xml.XmlUtils.configTransformer( transformer, encoding, doctypeSystem, indent );
-			jolie.xml.XmlUtils.valueToDocument( value, doc, schemaFilename );
-
-			try( Writer writer = new FileWriter( file, append ) ) {
-				StreamResult result = new StreamResult( writer );
-				transformer.transform( new DOMSource( doc ), result );
-			}
-		} catch( ParserConfigurationException | TransformerException e ) {
-			throw new IOException( e );
+		try( OutputStream ostream = new FileOutputStream( file, append ) ) {
+			XmlValueWriter.of( ostream, encoding )
+				.indent( indent )
+				.doctypeSystem( doctypeSystem )
+				.writeDocumentWithSchema( value, schemaFilename );
 		}
 	}
 
@@ -610,28 +587,10 @@ public class FileService extends JavaService {
 			return; // TODO: perhaps we should erase the content of the file before returning.
 		}
 		String rootName = value.children().keySet().iterator().next();
-		try {
-			Document doc = documentBuilderFactory.newDocumentBuilder().newDocument();
-			jolie.xml.XmlUtils.valueToStorageDocument(
-				value.getFirstChild( rootName ),
-				rootName,
-				doc );
-			Transformer transformer = transformerFactory.newTransformer();
-			if( indent ) {
-				transformer.setOutputProperty( OutputKeys.INDENT, "yes" );
-				transformer.setOutputProperty( "{http://xml.apache.org/xslt}indent-amount", "2" );
-			} else {
-				transformer.setOutputProperty( OutputKeys.INDENT, "no" );
-			}
-			if( encoding != null ) {
-				transformer.setOutputProperty( OutputKeys.ENCODING, encoding );
-			}
-			try( Writer writer = new FileWriter( file, false ) ) {
-				StreamResult result = new StreamResult( writer );
-				transformer.transform( new DOMSource( doc ), result );
-			}
-		} catch( ParserConfigurationException | TransformerException e ) {
-			throw new IOException( e );
+		try( OutputStream ostream = new FileOutputStream( file, false ) ) {
+			XmlValueWriter.of( ostream, encoding )
+				.indent( indent )
+				.writeStorageDocument( value.getFirstChild( rootName ), rootName );
 		}
 	}
 
@@ -657,13 +616,17 @@ public class FileService extends JavaService {
 
 	private static void writeJson( File file, Value value, boolean append, String encoding )
 		throws IOException {
-		StringBuilder json = new StringBuilder();
-		JsUtils.valueToJsonString( value, true, Type.UNDEFINED, json );
-
 		try( OutputStream fos = new FileOutputStream( file, append ) ) {
-			OutputStreamWriter writer = new OutputStreamWriter( fos, encoding != null ? encoding : "UTF-8" );
-			writer.write( json.toString() );
-			writer.flush();
+			if( encoding == null || StandardCharsets.UTF_8.name().equalsIgnoreCase( encoding ) ) {
+				// Stream the document straight to the file
+				JsUtils.valueToJson( value, true, Type.UNDEFINED, fos );
+			} else {
+				StringBuilder json = new StringBuilder();
+				JsUtils.valueToJsonString( value, true, Type.UNDEFINED, json );
+				OutputStreamWriter writer = new OutputStreamWriter( fos, encoding );
+				writer.write( json.toString() );
+				writer.flush();
+			}
 		}
 	}
 
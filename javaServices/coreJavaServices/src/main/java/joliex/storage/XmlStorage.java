@@ -24,30 +24,20 @@ package joliex.storage;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Writer;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.file.FileAlreadyExistsException;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 import jolie.runtime.AndJarDeps;
 import jolie.runtime.FaultException;
 import jolie.runtime.Value;
 import jolie.runtime.embedding.RequestResponse;
+import jolie.xml.XmlValueReader;
+import jolie.xml.XmlValueWriter;
 import joliex.storage.types.LoadRequest;
 import joliex.storage.types.SaveRequest;
-import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
 
 /**
  *
@@ -57,12 +47,7 @@ import org.xml.sax.InputSource;
 public class XmlStorage extends AbstractStorageService {
 	private File xmlFile = null;
 	private Charset charset = null;
-	private final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-	private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
-
-	public XmlStorage() {
-		documentBuilderFactory.setIgnoringElementContentWhitespace( true );
-	}
+	private final XmlValueReader xmlReader = new XmlValueReader( false );
 
 	@RequestResponse
 	public void connect( Value request )
@@ -89,13 +74,7 @@ public class XmlStorage extends AbstractStorageService {
 		Value value = Value.create();
 		try {
 			try( InputStream istream = new FileInputStream( xmlFile ) ) {
-				DocumentBuilder builder = documentBuilderFactory.newDocumentBuilder();
-				InputSource src = new InputSource( new InputStreamReader( istream ) );
-				if( charset != null ) {
-					src.setEncoding( charset.name() );
-				}
-				Document doc = builder.parse( src );
-				jolie.xml.XmlUtils.documentToValue( doc, value, false );
+				xmlReader.read( istream, charset == null ? null : charset.name(), value, true, false );
 			}
 		} catch( Exception e ) {
 			throw new FaultException( "StorageFault", e.getMessage() );
@@ -105,20 +84,11 @@ public class XmlStorage extends AbstractStorageService {
 
 	private void valueToFile( Value value )
 		throws FaultException {
-		try {
-			DocumentBuilder builder = documentBuilderFactory.newDocumentBuilder();
-			Document doc = builder.newDocument();
-			jolie.xml.XmlUtils.valueToDocument( value, "storage", doc );
-			Transformer transformer = transformerFactory.newTransformer();
-			transformer.setOutputProperty( OutputKeys.INDENT, "yes" );
-			if( charset != null ) {
-				transformer.setOutputProperty( OutputKeys.ENCODING, charset.name() );
-			}
-			try( Writer writer = new FileWriter( xmlFile ) ) {
-				StreamResult result = new StreamResult( writer );
-				transformer.transform( new DOMSource( doc ), result );
-			}
-		} catch( IOException | IllegalArgumentException | ParserConfigurationException | TransformerException e ) {
+		try( OutputStream ostream = new FileOutputStream( xmlFile ) ) {
+			XmlValueWriter.of( ostream, charset == null ? null : charset.name() )
+				.indent( true )
+				.writeDocument( value, "storage" );
+		} catch( IOException | IllegalArgumentException e ) {
 			throw new FaultException( "StorageFault", e.getMessage() );
 		}
 	}
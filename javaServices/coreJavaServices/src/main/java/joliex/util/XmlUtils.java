@@ -27,14 +27,11 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.net.URL;
 import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
@@ -43,25 +40,27 @@ import jolie.runtime.AndJarDeps;
 import jolie.runtime.FaultException;
 import jolie.runtime.JavaService;
 import jolie.runtime.Value;
+import jolie.xml.XmlValueReader;
+import jolie.xml.XmlValueWriter;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 @AndJarDeps( { "jolie-xml.jar", "xsom.jar", "relaxngDatatype.jar" } )
 public class XmlUtils extends JavaService {
-	private final DocumentBuilderFactory documentBuilderFactory;
 	private final TransformerFactory transformerFactory;
+	private final XmlValueReader namespaceAwareReader;
+	private final XmlValueReader storageReader;
 
 	public XmlUtils() {
-		this.documentBuilderFactory = DocumentBuilderFactory.newInstance();
 		this.transformerFactory = TransformerFactory.newInstance();
+		this.namespaceAwareReader = new XmlValueReader( true );
+		this.storageReader = new XmlValueReader( false );
 	}
 
 	public String valueToXml( Value request )
 		throws FaultException {
 		try {
-			Transformer transformer;
-			Document doc = documentBuilderFactory.newDocumentBuilder().newDocument();
 			Value value = request.getFirstChild( "root" );
 			String rootNodeName = value.children().keySet().iterator().next();
 			if( request.hasChildren( "rootNodeName" ) ) {
@@ -102,50 +101,21 @@ public class XmlUtils extends JavaService {
 				}
 			}
 
+			StringWriter outWriter = new StringWriter();
+			XmlValueWriter writer = XmlValueWriter.of( outWriter, encoding )
+				.indent( indent )
+				.omitXmlDeclaration( request.getFirstChild( "omitXmlDeclaration" ).boolValue() );
 			if( !isXmlStore ) {
 				if( isApplySchema ) {
-					transformer = transformerFactory.newTransformer();
-					jolie.xml.XmlUtils.configTransformer( transformer, encoding, doctypeSystem, indent );
-					jolie.xml.XmlUtils.valueToDocument( value, doc, schemaFilename );
+					writer.doctypeSystem( doctypeSystem ).writeDocumentWithSchema( value, schemaFilename );
 				} else {
-					jolie.xml.XmlUtils.valueToDocument(
-						value,
-						rootNodeName,
-						doc );
-					transformer = transformerFactory.newTransformer();
-					if( indent ) {
-						transformer.setOutputProperty( OutputKeys.INDENT, "yes" );
-						transformer.setOutputProperty( "{http://xml.apache.org/xslt}indent-amount", "2" );
-					} else {
-						transformer.setOutputProperty( OutputKeys.INDENT, "no" );
-					}
+					writer.writeDocument( value, rootNodeName );
 				}
 			} else {
-				jolie.xml.XmlUtils.valueToStorageDocument(
-					value,
-					rootNodeName,
-					doc );
-				transformer = transformerFactory.newTransformer();
-				if( indent ) {
-					transformer.setOutputProperty( OutputKeys.INDENT, "yes" );
-					transformer.setOutputProperty( "{http://xml.apache.org/xslt}indent-amount", "2" );
-				} else {
-					transformer.setOutputProperty( OutputKeys.INDENT, "no" );
-				}
-			}
-
-
-			if( request.getFirstChild( "omitXmlDeclaration" ).boolValue() ) {
-				transformer.setOutputProperty( OutputKeys.OMIT_XML_DECLARATION, "yes" );
+				writer.writeStorageDocument( value, rootNodeName );
 			}
-
-			StringWriter outWriter = new StringWriter();
-			StreamResult result = new StreamResult( outWriter );
-			transformer.transform( new DOMSource( doc ), result );
-			StringBuffer sb = outWriter.getBuffer();
-			return sb.toString();
-
-		} catch( ParserConfigurationException | IOException | TransformerException e ) {
+			return outWriter.toString();
+		} catch( IOException e ) {
 			throw new FaultException( e );
 		}
 	}
@@ -154,17 +124,12 @@ public class XmlUtils extends JavaService {
 		throws FaultException {
 		try {
 			Value result = Value.create();
-			InputSource src;
-			if( request.isByteArray() ) {
-				src = new InputSource( new ByteArrayInputStream( request.byteArrayValue().getBytes() ) );
-			} else {
-				src = new InputSource( new StringReader( request.strValue() ) );
-			}
-
 			boolean includeAttributes = false;
 			boolean skipMixedText = false;
 			boolean includeRoot = false;
 			boolean xmlStore = true;
+			String charset = null;
+			Schema schema = null;
 			if( request.hasChildren( "options" ) ) {
 				if( request.getFirstChild( "options" ).hasChildren() ) {
 					xmlStore = false;
@@ -181,12 +146,11 @@ public class XmlUtils extends JavaService {
 						request.getFirstChild( "options" ).hasChildren( "schemaLanguage" )
 							? request.getFirstChild( "options" ).getFirstChild( "schemaLanguage" ).strValue()
 							: XMLConstants.W3C_XML_SCHEMA_NS_URI );
-					Schema schema = schemaFactory.newSchema( new URL(
+					schema = schemaFactory.newSchema( new URL(
 						request.getFirstChild( "options" ).getFirstChild( "schemaUrl" ).strValue() ) );
-					documentBuilderFactory.setSchema( schema ); // set schema
 				}
 				if( request.getFirstChild( "options" ).hasChildren( "charset" ) ) {
-					src.setEncoding( request.getFirstChild( "options" ).getFirstChild( "charset" ).strValue() );
+					charset = request.getFirstChild( "options" ).getFirstChild( "charset" ).strValue();
 				}
 				if( request.getFirstChild( "options" ).hasChildren( "skipMixedText" ) ) {
 					skipMixedText = request.getFirstChild( "options" ).getFirstChild( "skipMixedText" ).boolValue();
@@ -197,32 +161,50 @@ public class XmlUtils extends JavaService {
 			}
 
 			if( !xmlStore ) {
-				DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-				dbFactory.setNamespaceAware( true );
-				DocumentBuilder builder = dbFactory.newDocumentBuilder();
-				Document doc = builder.parse( src );
-				Value value = result;
 				if( includeRoot ) {
-					value = result.getFirstChild(
-						doc.getDocumentElement().getLocalName() == null ? doc.getDocumentElement().getNodeName()
-							: doc.getDocumentElement().getLocalName() );
-					if( doc.getDocumentElement().getPrefix() != null ) {
-						value.getFirstChild( jolie.xml.XmlUtils.PREFIX )
-							.setValue( doc.getDocumentElement().getPrefix() );
+					if( request.isByteArray() ) {
+						namespaceAwareReader.readInto( new ByteArrayInputStream( request.byteArrayValue().getBytes() ),
+							charset, result, includeAttributes, skipMixedText );
+					} else {
+						namespaceAwareReader.readInto( new StringReader( request.strValue() ), result,
+							includeAttributes, skipMixedText );
+					}
+				} else {
+					if( request.isByteArray() ) {
+						namespaceAwareReader.read( new ByteArrayInputStream( request.byteArrayValue().getBytes() ),
+							charset, result, includeAttributes, skipMixedText );
+					} else {
+						namespaceAwareReader.read( new StringReader( request.strValue() ), result,
+							includeAttributes, skipMixedText );
 					}
 				}
-				jolie.xml.XmlUtils.documentToValue( doc, value, includeAttributes, skipMixedText );
+			} else if( schema == null ) {
+				if( request.isByteArray() ) {
+					storageReader.readStorage( new ByteArrayInputStream( request.byteArrayValue().getBytes() ),
+						charset, result );
+				} else {
+					storageReader.readStorage( new StringReader( request.strValue() ), result );
+				}
 			} else {
-				DocumentBuilder builder = documentBuilderFactory.newDocumentBuilder();
-				Document doc = builder.parse( src );
+				// validation needs a DOM parser
+				InputSource src;
+				if( request.isByteArray() ) {
+					src = new InputSource( new ByteArrayInputStream( request.byteArrayValue().getBytes() ) );
+				} else {
+					src = new InputSource( new StringReader( request.strValue() ) );
+				}
+				if( charset != null ) {
+					src.setEncoding( charset );
+				}
+				DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+				documentBuilderFactory.setSchema( schema );
+				Document doc = documentBuilderFactory.newDocumentBuilder().parse( src );
 				jolie.xml.XmlUtils.storageDocumentToValue( doc, result );
 			}
 			return result;
 		} catch( ParserConfigurationException | IOException | SAXException e ) {
 			e.printStackTrace();
 			throw new FaultException( e );
-		} finally {
-			documentBuilderFactory.setSchema( null ); // reset schema
 		}
 	}
 
@@ -110,11 +110,14 @@ public final class JolieClassLoader extends URLClassLoader {
 			return getParent().loadClass( className );
 		}
 
-		try {
-			final Class< ? > c = findLoadedClass( className );
-			return (c == null) ? findClass( className ) : c;
-		} catch( ClassNotFoundException e ) {
-			return getParent().loadClass( className );
+		// Threads loading the same class at the same time would otherwise define it twice
+		synchronized( getClassLoadingLock( className ) ) {
+			try {
+				final Class< ? > c = findLoadedClass( className );
+				return (c == null) ? findClass( className ) : c;
+			} catch( ClassNotFoundException e ) {
+				return getParent().loadClass( className );
+			}
 		}
 	}
 
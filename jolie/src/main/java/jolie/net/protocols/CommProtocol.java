@@ -67,11 +67,53 @@ public abstract class CommProtocol {
 
 	private final VariablePath configurationPath;
 	private CommChannel channel = null;
+	private volatile PinnedConfiguration pinnedConfiguration = null;
+
+	/*
+	 * The thread and the value it pinned are published together, so that a thread reading the
+	 * configuration never sees the value pinned by another one.
+	 */
+	private static class PinnedConfiguration {
+		private final Thread thread;
+		private final Value value;
+
+		private PinnedConfiguration( Thread thread, Value value ) {
+			this.thread = thread;
+			this.value = value;
+		}
+	}
 
 	protected VariablePath configurationPath() {
 		return configurationPath;
 	}
 
+	/**
+	 * Returns the value holding the configuration parameters of this protocol.
+	 *
+	 * @see #pinConfiguration()
+	 */
+	protected Value configuration() {
+		final PinnedConfiguration pinned = pinnedConfiguration;
+		if( pinned != null && pinned.thread == Thread.currentThread() ) {
+			return pinned.value;
+		}
+		return configurationPath.getValue();
+	}
+
+	/**
+	 * Evaluates the configuration path once and makes the parameter lookups performed by the calling
+	 * thread use the result, until {@link #unpinConfiguration()} is called. Protocols that read many
+	 * parameters while handling a single message can use this to avoid evaluating the configuration
+	 * path for each of them. Lookups from other threads are not affected.
+	 */
+	protected void pinConfiguration() {
+		pinnedConfiguration = new PinnedConfiguration( Thread.currentThread(), configurationPath.getValue() );
+	}
+
+	protected void unpinConfiguration() {
+		pinnedConfiguration = null;
+	}
+
 	public abstract String name();
 
 	public CommProtocol( VariablePath configurationPath ) {
@@ -90,20 +132,22 @@ public abstract class CommProtocol {
 	}
 
 	protected ValueVector getParameterVector( String id ) {
-		return configurationPath.getValue().getChildren( id );
+		return configuration().getChildren( id );
 	}
 
 	protected boolean hasParameter( String id ) {
-		if( configurationPath.getValue().hasChildren( id ) ) {
-			Value v = configurationPath.getValue().getFirstChild( id );
+		final Value configuration = configuration();
+		if( configuration.hasChildren( id ) ) {
+			Value v = configuration.getFirstChild( id );
 			return v.isDefined() || v.hasChildren();
 		}
 		return false;
 	}
 
 	protected boolean hasParameterValue( String id ) {
-		if( configurationPath.getValue().hasChildren( id ) ) {
-			Value v = configurationPath.getValue().getFirstChild( id );
+		final Value configuration = configuration();
+		if( configuration.hasChildren( id ) ) {
+			Value v = configuration.getFirstChild( id );
 			return v.isDefined();
 		}
 		return false;
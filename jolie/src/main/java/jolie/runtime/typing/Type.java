@@ -80,6 +80,11 @@ class TypeImpl extends Type {
 		return basicType;
 	}
 
+	@Override
+	public NativeType nativeType() {
+		return basicType.nativeType();
+	}
+
 	@Override
 	public void cutChildrenFromValue( Value value ) {
 		if( subTypes != null ) {
@@ -290,6 +295,12 @@ class TypeChoice extends Type {
 		return cardinality;
 	}
 
+	@Override
+	public NativeType nativeType() {
+		final NativeType leftType = left.nativeType();
+		return leftType == right.nativeType() ? leftType : null;
+	}
+
 	@Override
 	protected void check( Value value, StringBuilder pathBuilder )
 		throws TypeCheckingException {
@@ -458,6 +469,11 @@ public abstract class Type {
 
 	public abstract Type findSubType( String key, Value value );
 
+	/**
+	 * Returns the native type of the root value, or null if this is a choice between different ones.
+	 */
+	public abstract NativeType nativeType();
+
 	protected abstract void check( Value value, StringBuilder pathBuilder )
 		throws TypeCheckingException;
 
@@ -502,6 +518,11 @@ public abstract class Type {
 			return cardinality;
 		}
 
+		@Override
+		public NativeType nativeType() {
+			return linkedType.nativeType();
+		}
+
 		@Override
 		protected void check( Value value, StringBuilder pathBuilder )
 			throws TypeCheckingException {
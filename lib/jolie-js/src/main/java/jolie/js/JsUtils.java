@@ -23,15 +23,8 @@ package jolie.js;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
-import java.io.StringReader;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.JSONValue;
-import org.json.simple.parser.ParseException;
 import jolie.runtime.Value;
 import jolie.runtime.ValueVector;
 import jolie.runtime.typing.Type;
@@ -43,7 +36,7 @@ public class JsUtils {
 	 * reason Jolie introduces a "ROOT_SIGN" named attribute on each mapped Jolie value with a root
 	 * value set.
 	 */
-	private static final String ROOT_SIGN = "$";
+	static final String ROOT_SIGN = "$";
 
 	/**
 	 * Jolie values do not support multi-dimensional arrays as JSON, hence val[i][j] in Jolie becomes
@@ -52,208 +45,93 @@ public class JsUtils {
 	public static final String JSONARRAY_KEY = "_";
 
 	// Jolie value -> JSON string
-	private static void appendKeyColon( StringBuilder builder, String key ) {
-		builder.append( '"' ).append( key ).append( "\":" );
-	}
-
-	private static String nativeValueToJsonString( Value value ) throws IOException {
-		if( !value.isDefined() ) {
-			return "null";
-		} else if( value.isInt() || value.isLong() || value.isBool() || value.isDouble() ) {
-			return value.strValue();
-		} else {
-			return '"' + JSONValue.escape( value.strValue() ) + '"';
-		}
-	}
-
-	private static void valueVectorToJsonString( ValueVector vector, StringBuilder builder, boolean isArray, Type type )
-		throws IOException {
-		if( vector.size() > 1 || isArray || (type != null && type.cardinality().max() > 1) ) {
-			builder.append( '[' );
-			for( int i = 0; i < vector.size(); i++ ) {
-				valueToJsonString( vector.get( i ), false, type, builder );
-				if( i < vector.size() - 1 ) {
-					builder.append( ',' );
-				}
-			}
-			builder.append( ']' );
-		} else {
-			valueToJsonString( vector.first(), false, type, builder );
-		}
-	}
-
 	public static void valueToJsonString( Value value, boolean extendedRoot, Type type, StringBuilder builder )
 		throws IOException {
-		if( value.hasChildren( JSONARRAY_KEY ) ) {
-			Type subType = (type != null ? type.findSubType( JSONARRAY_KEY ) : null);
-			valueVectorToJsonString( value.children().get( JSONARRAY_KEY ), builder, true, subType );
-			return;
-		}
-		int size = value.children().size();
-		if( size == 0 ) {
-			if( extendedRoot ) {
-				builder.append( '{' );
-				if( value.isDefined() ) {
-					appendKeyColon( builder, ROOT_SIGN );
-					builder.append( nativeValueToJsonString( value ) );
-				}
-				builder.append( '}' );
-			} else {
-				builder.append( nativeValueToJsonString( value ) );
-			}
-		} else {
-			builder.append( '{' );
-			if( value.isDefined() ) {
-				appendKeyColon( builder, ROOT_SIGN );
-				builder.append( nativeValueToJsonString( value ) );
-				builder.append( ',' );
-			}
-			int i = 0;
-			for( Map.Entry< String, ValueVector > child : value.children().entrySet() ) {
-				final Type subType =
-					(type != null ? type.findSubType( child.getKey(), child.getValue().first() ) : null);
-				appendKeyColon( builder, child.getKey() );
-				valueVectorToJsonString( child.getValue(), builder, false, subType );
-				if( i++ < size - 1 ) {
-					builder.append( ',' );
-				}
-			}
-			builder.append( '}' );
-		}
+		JsonWriter.of( builder ).writeValue( value, extendedRoot, type );
 	}
 
 	public static void valueToNdJsonString( Value value, boolean extendedRoot, Type type, StringBuilder builder )
 		throws IOException {
-		if( !value.hasChildren( "item" ) ) {
-			throw new IOException( "ndJson requires at least one child node 'item'" );
-		}
-
-		for( Value item : value.getChildren( "item" ) ) {
-			valueToJsonString( item, extendedRoot, type, builder );
-			builder.append( '\n' );
-		}
+		JsonWriter.of( builder ).writeNdJson( value, extendedRoot, type );
 	}
 
 	public static void faultValueToJsonString( Value value, Type type, StringBuilder builder ) throws IOException {
-		builder.append( "{\"error\":{\"message\":\"" )
-			.append( value.getFirstChild( "error" ).getFirstChild( "message" ).strValue() )
-			.append( "\",\"code\":" )
-			.append( value.getFirstChild( "error" ).getFirstChild( "code" ).intValue() )
-			.append( ",\"data\":" );
-		valueToJsonString( value.getFirstChild( "error" ).getFirstChild( "data" ), false, type, builder );
-		builder.append( "}}" );
-	}
-
-	// JSON string -> Jolie value
-	private static void objectToBasicValue( Object obj, Value val ) {
-		if( obj instanceof String ) {
-			val.setValue( (String) obj );
-		} else if( obj instanceof Double ) {
-			val.setValue( (Double) obj );
-		} else if( obj instanceof Long ) {
-			long lval = (Long) obj;
-			if( lval > Integer.MAX_VALUE || lval < Integer.MIN_VALUE ) {
-				val.setValue( lval );
-			} else {
-				val.setValue( (int) lval );
-			}
-		} else if( obj instanceof Boolean ) {
-			val.setValue( (Boolean) obj );
-		} else if( obj != null ) {
-			val.setValue( obj.toString() );
-		}
+		JsonWriter.of( builder ).writeFault( value, type );
 	}
 
-	private static void jsonObjectToValue( JSONObject obj, Value value, boolean strictEncoding ) {
-		@SuppressWarnings( "unchecked" )
-		Map< String, Object > map = (Map< String, Object >) obj;
-		ValueVector vec;
-		for( Map.Entry< String, Object > entry : map.entrySet() ) {
-			if( entry.getKey().equals( ROOT_SIGN ) ) {
-				objectToBasicValue( entry.getValue(), value );
-			} else {
-				vec = jsonObjectToValueVector( entry.getValue(), strictEncoding );
-				value.children().put( entry.getKey(), vec );
-			}
-		}
+	/**
+	 * Writes a value as UTF-8 encoded JSON, without building the document in memory first.
+	 */
+	public static void valueToJson( Value value, boolean extendedRoot, Type type, OutputStream ostream )
+		throws IOException {
+		final JsonWriter writer = JsonWriter.of( ostream );
+		writer.writeValue( value, extendedRoot, type );
+		writer.flush();
 	}
 
-	private static ValueVector jsonObjectToValueVector( Object obj, boolean strictEncoding ) {
-		ValueVector vec = ValueVector.create();
-		if( obj instanceof JSONObject ) {
-			Value val = Value.create();
-			jsonObjectToValue( (JSONObject) obj, val, strictEncoding );
-			vec.add( val );
-		} else if( obj instanceof JSONArray && strictEncoding ) {
-			Value arrayValue = Value.create();
-			vec.add( arrayValue );
-			arrayValue.children().put( JSONARRAY_KEY, jsonArrayToValueVector( (JSONArray) obj, strictEncoding ) );
-		} else if( obj instanceof JSONArray && !strictEncoding ) {
-			vec = jsonArrayToValueVector( (JSONArray) obj, strictEncoding );
-		} else {
-			Value val = Value.create();
-			objectToBasicValue( obj, val );
-			vec.add( val );
-		}
-		return vec;
+	public static void valueToNdJson( Value value, boolean extendedRoot, Type type, OutputStream ostream )
+		throws IOException {
+		final JsonWriter writer = JsonWriter.of( ostream );
+		writer.writeNdJson( value, extendedRoot, type );
+		writer.flush();
 	}
 
-	private static ValueVector jsonArrayToValueVector( JSONArray array, boolean strictEncoding ) {
-		ValueVector vec = ValueVector.create();
-		for( Object element : array ) {
-			Value value = Value.create();
-			if( element instanceof JSONArray ) {
-				value.children().put( JSONARRAY_KEY, jsonArrayToValueVector( (JSONArray) element, strictEncoding ) );
-			} else if( element instanceof JSONObject ) {
-				jsonObjectToValue( (JSONObject) element, value, strictEncoding );
-			} else {
-				objectToBasicValue( element, value );
-			}
-			vec.add( value );
-		}
-		return vec;
+	public static void faultValueToJson( Value value, Type type, OutputStream ostream ) throws IOException {
+		final JsonWriter writer = JsonWriter.of( ostream );
+		writer.writeFault( value, type );
+		writer.flush();
 	}
 
+	// JSON string -> Jolie value
 	public static void parseJsonIntoValue( Reader reader, Value value, boolean strictEncoding )
 		throws IOException {
-		try {
-			Object obj = JSONValue.parseWithException( reader );
-			if( obj instanceof JSONArray ) {
-				value.children().put( JSONARRAY_KEY, jsonArrayToValueVector( (JSONArray) obj, strictEncoding ) );
-			} else if( obj instanceof JSONObject ) {
-				jsonObjectToValue( (JSONObject) obj, value, strictEncoding );
-			} else {
-				objectToBasicValue( obj, value );
-			}
-		} catch( ParseException | ClassCastException e ) {
-			throw new IOException( e );
-		}
+		parseJsonIntoValue( reader, value, strictEncoding, null );
 	}
 
+	/**
+	 * Parses a JSON document into a value.
+	 *
+	 * @param type the expected type of the value, used to store numbers with their declared native
+	 *        type; may be null
+	 */
+	public static void parseJsonIntoValue( Reader reader, Value value, boolean strictEncoding, Type type )
+		throws IOException {
+		new JsonReader( reader, strictEncoding ).read( value, type );
+	}
 
 	public static void parseNdJsonIntoValue( BufferedReader reader, Value value, boolean strictEncoding )
 		throws IOException {
-		List< String > stringItemVector = reader.lines().collect( Collectors.toList() );
+		final ValueVector items = value.getChildren( "item" );
+		parseNdJson( reader, strictEncoding, null, items::add );
+	}
 
-		for( String stringItem : stringItemVector ) {
-			StringReader itemReader = new StringReader( stringItem );
-			try {
-				Value itemValue = Value.create();
-				Object obj = JSONValue.parseWithException( itemReader );
-				if( obj instanceof JSONArray ) {
-					itemValue.children().put( JSONARRAY_KEY,
-						jsonArrayToValueVector( (JSONArray) obj, strictEncoding ) );
-				} else if( obj instanceof JSONObject ) {
-					jsonObjectToValue( (JSONObject) obj, itemValue, strictEncoding );
-				} else {
-					objectToBasicValue( obj, itemValue );
-				}
-				value.getChildren( "item" ).add( itemValue );
-			} catch( ParseException | ClassCastException e ) {
-				throw new IOException( e );
-			}
+	/**
+	 * Receives the records of a newline-delimited JSON stream.
+	 */
+	@FunctionalInterface
+	public interface RecordHandler {
+		void accept( Value record )
+			throws IOException;
+	}
 
+	/**
+	 * Parses a newline-delimited JSON stream incrementally, passing each record to the handler as soon
+	 * as it has been read. The stream is never held in memory as a whole, so the handler can apply
+	 * back-pressure simply by not returning until it is ready for the next record.
+	 *
+	 * @param type the expected type of each record; may be null
+	 * @return the number of records read
+	 */
+	public static long parseNdJson( Reader reader, boolean strictEncoding, Type type, RecordHandler handler )
+		throws IOException {
+		final JsonReader jsonReader = new JsonReader( reader, strictEncoding );
+		long count = 0;
+		Value record = Value.create();
+		while( jsonReader.readNext( record, type ) ) {
+			handler.accept( record );
+			record = Value.create();
+			count++;
 		}
-
+		return count;
 	}
 }
@@ -0,0 +1,403 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.js;
+
+import java.io.IOException;
+import java.io.Reader;
+import jolie.lang.NativeType;
+import jolie.runtime.Value;
+import jolie.runtime.ValueVector;
+import jolie.runtime.typing.Type;
+
+/**
+ * Reads JSON documents into Jolie values, following the mapping described in {@link JsUtils}.
+ *
+ * Values are built while the input is tokenised, without an intermediate object model. When a
+ * {@link Type} is given, numbers are stored with the native type declared for their node (int,
+ * long, double or string), so that they do not need to be converted again when the value is cast.
+ */
+public class JsonReader {
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+	private final boolean strictEncoding;
+	private final char[] buffer = new char[ BUFFER_SIZE ];
+	private int position = 0;
+	private int limit = 0;
+	private long offset = 0;
+	private final StringBuilder text = new StringBuilder();
+
+	/**
+	 * @param reader the source of the document
+	 * @param strictEncoding if true, a JSON array in an object field is kept as an array node (with
+	 *        children "_") instead of becoming the vector of that field
+	 */
+	public JsonReader( Reader reader, boolean strictEncoding ) {
+		this.reader = reader;
+		this.strictEncoding = strictEncoding;
+	}
+
+	/**
+	 * Reads a whole document into the given value. Nothing but whitespace may follow the document.
+	 *
+	 * @param type the type of the value, or null
+	 */
+	public void read( Value value, Type type )
+		throws IOException {
+		readRoot( value, type );
+		if( skipWhitespace() != -1 ) {
+			throw error( "Unexpected content after the end of the JSON document" );
+		}
+	}
+
+	/**
+	 * Reads the next document of a sequence (e.g., newline-delimited JSON) into the given value.
+	 *
+	 * @return false if the end of the input has been reached and no document was read
+	 */
+	public boolean readNext( Value value, Type type )
+		throws IOException {
+		if( skipWhitespace() == -1 ) {
+			return false;
+		}
+		readRoot( value, type );
+		return true;
+	}
+
+	private void readRoot( Value value, Type type )
+		throws IOException {
+		final int c = skipWhitespace();
+		if( c == '{' ) {
+			position++;
+			readObject( value, type );
+		} else if( c == '[' ) {
+			position++;
+			value.children().put( JsUtils.JSONARRAY_KEY, readArray( subType( type, JsUtils.JSONARRAY_KEY ) ) );
+		} else {
+			readPrimitive( value, type );
+		}
+	}
+
+	private void readObject( Value value, Type type )
+		throws IOException {
+		int c = skipWhitespace();
+		if( c == '}' ) {
+			position++;
+			return;
+		}
+		while( true ) {
+			if( c != '"' ) {
+				throw error( "Expected a field name" );
+			}
+			position++;
+			final String key = readString();
+			expect( ':' );
+			final Type fieldType = subType( type, key );
+			if( key.equals( JsUtils.ROOT_SIGN ) ) {
+				readRootSign( value, type );
+			} else {
+				value.children().put( key, readField( fieldType ) );
+			}
+			c = skipWhitespace();
+			position++;
+			if( c == '}' ) {
+				return;
+			} else if( c != ',' ) {
+				throw error( "Expected ',' or '}'" );
+			}
+			c = skipWhitespace();
+		}
+	}
+
+	private ValueVector readField( Type type )
+		throws IOException {
+		final int c = skipWhitespace();
+		if( c == '[' ) {
+			position++;
+			if( !strictEncoding ) {
+				return readArray( type );
+			}
+			final ValueVector vector = ValueVector.create();
+			final Value arrayValue = Value.create();
+			arrayValue.children().put( JsUtils.JSONARRAY_KEY, readArray( subType( type, JsUtils.JSONARRAY_KEY ) ) );
+			vector.add( arrayValue );
+			return vector;
+		}
+		final ValueVector vector = ValueVector.create();
+		final Value value = Value.create();
+		if( c == '{' ) {
+			position++;
+			readObject( value, type );
+		} else {
+			readPrimitive( value, type );
+		}
+		vector.add( value );
+		return vector;
+	}
+
+	private ValueVector readArray( Type elementType )
+		throws IOException {
+		final ValueVector vector = ValueVector.create();
+		int c = skipWhitespace();
+		if( c == ']' ) {
+			position++;
+			return vector;
+		}
+		while( true ) {
+			final Value element = Value.create();
+			if( c == '[' ) {
+				position++;
+				element.children().put( JsUtils.JSONARRAY_KEY,
+					readArray( subType( elementType, JsUtils.JSONARRAY_KEY ) ) );
+			} else if( c == '{' ) {
+				position++;
+				readObject( element, elementType );
+			} else {
+				readPrimitive( element, elementType );
+			}
+			vector.add( element );
+			c = skipWhitespace();
+			position++;
+			if( c == ']' ) {
+				return vector;
+			} else if( c != ',' ) {
+				throw error( "Expected ',' or ']'" );
+			}
+			c = skipWhitespace();
+		}
+	}
+
+	/**
+	 * Reads the content of a "$" field, which becomes the root value of the enclosing node. Structured
+	 * content is kept as its JSON text.
+	 */
+	private void readRootSign( Value value, Type type )
+		throws IOException {
+		final int c = skipWhitespace();
+		if( c == '{' || c == '[' ) {
+			final Value scratch = Value.create();
+			readRoot( scratch, null );
+			final StringBuilder builder = new StringBuilder();
+			JsonWriter.of( builder ).writeValue( scratch, false, null );
+			value.setValue( builder.toString() );
+		} else {
+			readPrimitive( value, type );
+		}
+	}
+
+	private void readPrimitive( Value value, Type type )
+		throws IOException {
+		final int c = skipWhitespace();
+		switch( c ) {
+		case '"':
+			position++;
+			value.setValue( readString() );
+			break;
+		case 't':
+			expectWord( "true" );
+			value.setValue( true );
+			break;
+		case 'f':
+			expectWord( "false" );
+			value.setValue( false );
+			break;
+		case 'n':
+			expectWord( "null" );
+			break;
+		case -1:
+			throw error( "Unexpected end of the JSON document" );
+		default:
+			if( c == '-' || (c >= '0' && c <= '9') ) {
+				readNumber( value, type == null ? null : type.nativeType() );
+			} else {
+				throw error( "Unexpected character '" + (char) c + "'" );
+			}
+		}
+	}
+
+	private void readNumber( Value value, NativeType nativeType )
+		throws IOException {
+		text.setLength( 0 );
+		boolean integral = true;
+		while( true ) {
+			if( position == limit && !fill() ) {
+				break;
+			}
+			final char c = buffer[ position ];
+			if( (c >= '0' && c <= '9') || c == '-' || c == '+' ) {
+				text.append( c );
+			} else if( c == '.' || c == 'e' || c == 'E' ) {
+				integral = false;
+				text.append( c );
+			} else {
+				break;
+			}
+			position++;
+		}
+		final String literal = text.toString();
+		try {
+			if( nativeType == NativeType.STRING ) {
+				value.setValue( literal );
+			} else if( nativeType == NativeType.DOUBLE || !integral ) {
+				value.setValue( Double.parseDouble( literal ) );
+			} else {
+				final long l;
+				try {
+					l = Long.parseLong( literal );
+				} catch( NumberFormatException e ) {
+					// out of the range of long
+					value.setValue( Double.parseDouble( literal ) );
+					return;
+				}
+				if( nativeType != NativeType.LONG && l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE ) {
+					value.setValue( (int) l );
+				} else {
+					value.setValue( l );
+				}
+			}
+		} catch( NumberFormatException e ) {
+			throw error( "Invalid number " + literal );
+		}
+	}
+
+	private String readString()
+		throws IOException {
+		text.setLength( 0 );
+		while( true ) {
+			if( position == limit && !fill() ) {
+				throw error( "Unterminated string" );
+			}
+			// copy the run of plain characters in one go
+			int start = position;
+			while( position < limit ) {
+				final char c = buffer[ position ];
+				if( c == '"' || c == '\\' ) {
+					break;
+				}
+				position++;
+			}
+			text.append( buffer, start, position - start );
+			if( position == limit ) {
+				continue;
+			}
+			final char c = buffer[ position++ ];
+			if( c == '"' ) {
+				return text.toString();
+			}
+			text.append( readEscape() );
+		}
+	}
+
+	private char readEscape()
+		throws IOException {
+		final int c = next();
+		switch( c ) {
+		case '"':
+		case '\\':
+		case '/':
+			return (char) c;
+		case 'b':
+			return '\b';
+		case 'f':
+			return '\f';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 't':
+			return '\t';
+		case 'u':
+			int code = 0;
+			for( int i = 0; i < 4; i++ ) {
+				final int digit = Character.digit( next(), 16 );
+				if( digit < 0 ) {
+					throw error( "Invalid unicode escape" );
+				}
+				code = (code << 4) | digit;
+			}
+			return (char) code;
+		default:
+			throw error( "Invalid escape sequence" );
+		}
+	}
+
+	private void expect( char expected )
+		throws IOException {
+		if( skipWhitespace() != expected ) {
+			throw error( "Expected '" + expected + "'" );
+		}
+		position++;
+	}
+
+	private void expectWord( String word )
+		throws IOException {
+		for( int i = 0; i < word.length(); i++ ) {
+			if( next() != word.charAt( i ) ) {
+				throw error( "Expected " + word );
+			}
+		}
+	}
+
+	private int next()
+		throws IOException {
+		if( position == limit && !fill() ) {
+			throw error( "Unexpected end of the JSON document" );
+		}
+		return buffer[ position++ ];
+	}
+
+	/**
+	 * Skips whitespace and returns the next character without consuming it, or -1 at the end of input.
+	 */
+	private int skipWhitespace()
+		throws IOException {
+		while( true ) {
+			if( position == limit && !fill() ) {
+				return -1;
+			}
+			final char c = buffer[ position ];
+			if( c != ' ' && c != '\n' && c != '\r' && c != '\t' ) {
+				return c;
+			}
+			position++;
+		}
+	}
+
+	private boolean fill()
+		throws IOException {
+		offset += limit;
+		final int r = reader.read( buffer, 0, BUFFER_SIZE );
+		if( r <= 0 ) {
+			position = limit = 0;
+			return false;
+		}
+		position = 0;
+		limit = r;
+		return true;
+	}
+
+	private IOException error( String message ) {
+		return new IOException( message + " at offset " + (offset + position) );
+	}
+
+	private static Type subType( Type type, String key ) {
+		return type == null ? null : type.findSubType( key );
+	}
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.js;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import jolie.runtime.Value;
+import jolie.runtime.ValueVector;
+import jolie.runtime.typing.Type;
+
+/**
+ * Writes Jolie values as JSON, following the mapping described in {@link JsUtils}.
+ *
+ * The value tree is walked once and the output is produced as it goes, either as UTF-8 bytes on an
+ * {@link OutputStream} or as characters on a {@link StringBuilder}. When a {@link Type} is given,
+ * child nodes whose declared cardinality allows more than one element are written as arrays even if
+ * they hold a single element.
+ */
+public abstract class JsonWriter {
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	/**
+	 * Returns a writer producing UTF-8 bytes. The bytes are buffered: call {@link #flush()} when done.
+	 */
+	public static JsonWriter of( OutputStream ostream ) {
+		return new StreamWriter( ostream );
+	}
+
+	/**
+	 * Returns a writer appending to the given builder.
+	 */
+	public static JsonWriter of( StringBuilder builder ) {
+		return new BuilderWriter( builder );
+	}
+
+	protected abstract void write( char c )
+		throws IOException;
+
+	/**
+	 * Writes a string that is known to consist of ASCII characters that do not need escaping.
+	 */
+	protected abstract void writeAscii( String s )
+		throws IOException;
+
+	/**
+	 * Writes a character of a string literal that does not need escaping.
+	 */
+	protected abstract void writeLiteralChar( char c, String s, int index )
+		throws IOException;
+
+	public abstract void flush()
+		throws IOException;
+
+	/**
+	 * Writes a value.
+	 *
+	 * @param extendedRoot if true, a value without children is written as an object with a "$" field
+	 *        instead of as a JSON primitive
+	 * @param type the type of the value, or null
+	 */
+	public void writeValue( Value value, boolean extendedRoot, Type type )
+		throws IOException {
+		if( value.hasChildren( JsUtils.JSONARRAY_KEY ) ) {
+			final Type subType = type != null ? type.findSubType( JsUtils.JSONARRAY_KEY ) : null;
+			writeVector( value.children().get( JsUtils.JSONARRAY_KEY ), true, subType );
+			return;
+		}
+		final Map< String, ValueVector > children = value.children();
+		if( children.isEmpty() ) {
+			if( extendedRoot ) {
+				write( '{' );
+				if( value.isDefined() ) {
+					writeKey( JsUtils.ROOT_SIGN );
+					writeNative( value );
+				}
+				write( '}' );
+			} else {
+				writeNative( value );
+			}
+		} else {
+			write( '{' );
+			boolean first = true;
+			if( value.isDefined() ) {
+				writeKey( JsUtils.ROOT_SIGN );
+				writeNative( value );
+				first = false;
+			}
+			for( Map.Entry< String, ValueVector > child : children.entrySet() ) {
+				if( !first ) {
+					write( ',' );
+				}
+				first = false;
+				writeKey( child.getKey() );
+				// the value is needed to pick the right alternative of a choice type
+				writeVector( child.getValue(), false,
+					type != null ? type.findSubType( child.getKey(), child.getValue().first() ) : null );
+			}
+			write( '}' );
+		}
+	}
+
+	/**
+	 * Writes the "item" children of a value as newline-delimited JSON.
+	 */
+	public void writeNdJson( Value value, boolean extendedRoot, Type type )
+		throws IOException {
+		if( !value.hasChildren( "item" ) ) {
+			throw new IOException( "ndJson requires at least one child node 'item'" );
+		}
+		for( Value item : value.getChildren( "item" ) ) {
+			writeValue( item, extendedRoot, type );
+			write( '\n' );
+		}
+	}
+
+	/**
+	 * Writes a fault value as a JSON-RPC error object.
+	 */
+	public void writeFault( Value value, Type type )
+		throws IOException {
+		final Value error = value.getFirstChild( "error" );
+		writeAscii( "{\"error\":{\"message\":" );
+		writeString( error.getFirstChild( "message" ).strValue() );
+		writeAscii( ",\"code\":" );
+		writeAscii( Integer.toString( error.getFirstChild( "code" ).intValue() ) );
+		writeAscii( ",\"data\":" );
+		writeValue( error.getFirstChild( "data" ), false, type );
+		writeAscii( "}}" );
+	}
+
+	private void writeVector( ValueVector vector, boolean isArray, Type type )
+		throws IOException {
+		final int size = vector.size();
+		if( size > 1 || isArray || (type != null && type.cardinality().max() > 1) ) {
+			write( '[' );
+			for( int i = 0; i < size; i++ ) {
+				if( i > 0 ) {
+					write( ',' );
+				}
+				writeValue( vector.get( i ), false, type );
+			}
+			write( ']' );
+		} else {
+			writeValue( vector.first(), false, type );
+		}
+	}
+
+	private void writeKey( String key )
+		throws IOException {
+		writeString( key );
+		write( ':' );
+	}
+
+	private void writeNative( Value value )
+		throws IOException {
+		if( !value.isDefined() ) {
+			writeAscii( "null" );
+		} else if( value.isInt() || value.isLong() || value.isBool() || value.isDouble() ) {
+			writeAscii( value.strValue() );
+		} else {
+			writeString( value.strValue() );
+		}
+	}
+
+	/**
+	 * Writes a string literal, escaping characters as json-simple's JSONValue.escape does.
+	 */
+	public void writeString( String s )
+		throws IOException {
+		write( '"' );
+		final int length = s.length();
+		for( int i = 0; i < length; i++ ) {
+			final char c = s.charAt( i );
+			switch( c ) {
+			case '"':
+				writeAscii( "\\\"" );
+				break;
+			case '\\':
+				writeAscii( "\\\\" );
+				break;
+			case '\b':
+				writeAscii( "\\b" );
+				break;
+			case '\f':
+				writeAscii( "\\f" );
+				break;
+			case '\n':
+				writeAscii( "\\n" );
+				break;
+			case '\r':
+				writeAscii( "\\r" );
+				break;
+			case '\t':
+				writeAscii( "\\t" );
+				break;
+			case '/':
+				writeAscii( "\\/" );
+				break;
+			default:
+				if( c <= '\u001F' || (c >= '\u007F' && c <= '\u009F') || (c >= '\u2000' && c <= '\u20FF') ) {
+					write( '\\' );
+					write( 'u' );
+					write( HEX[ (c >> 12) & 0xF ] );
+					write( HEX[ (c >> 8) & 0xF ] );
+					write( HEX[ (c >> 4) & 0xF ] );
+					write( HEX[ c & 0xF ] );
+				} else {
+					writeLiteralChar( c, s, i );
+				}
+			}
+		}
+		write( '"' );
+	}
+
+	private static final class BuilderWriter extends JsonWriter {
+		private final StringBuilder builder;
+
+		private BuilderWriter( StringBuilder builder ) {
+			this.builder = builder;
+		}
+
+		@Override
+		protected void write( char c ) {
+			builder.append( c );
+		}
+
+		@Override
+		protected void writeAscii( String s ) {
+			builder.append( s );
+		}
+
+		@Override
+		protected void writeLiteralChar( char c, String s, int index ) {
+			builder.append( c );
+		}
+
+		@Override
+		public void flush() {}
+	}
+
+	private static final class StreamWriter extends JsonWriter {
+		private static final int BUFFER_SIZE = 8192;
+
+		private final OutputStream ostream;
+		private final byte[] buffer = new byte[ BUFFER_SIZE ];
+		private int count = 0;
+
+		private StreamWriter( OutputStream ostream ) {
+			this.ostream = ostream;
+		}
+
+		private void ensure( int n )
+			throws IOException {
+			if( count + n > BUFFER_SIZE ) {
+				ostream.write( buffer, 0, count );
+				count = 0;
+			}
+		}
+
+		@Override
+		protected void write( char c )
+			throws IOException {
+			// only called with ASCII characters
+			ensure( 1 );
+			buffer[ count++ ] = (byte) c;
+		}
+
+		@Override
+		protected void writeAscii( String s )
+			throws IOException {
+			final int length = s.length();
+			if( length > BUFFER_SIZE ) {
+				for( int i = 0; i < length; i++ ) {
+					write( s.charAt( i ) );
+				}
+				return;
+			}
+			ensure( length );
+			for( int i = 0; i < length; i++ ) {
+				buffer[ count++ ] = (byte) s.charAt( i );
+			}
+		}
+
+		@Override
+		protected void writeLiteralChar( char c, String s, int index )
+			throws IOException {
+			ensure( 4 );
+			if( c < 0x80 ) {
+				buffer[ count++ ] = (byte) c;
+			} else if( c < 0x800 ) {
+				buffer[ count++ ] = (byte) (0xC0 | (c >> 6));
+				buffer[ count++ ] = (byte) (0x80 | (c & 0x3F));
+			} else if( Character.isHighSurrogate( c ) ) {
+				if( index + 1 < s.length() && Character.isLowSurrogate( s.charAt( index + 1 ) ) ) {
+					// the low surrogate is written together with its high surrogate
+					final int cp = Character.toCodePoint( c, s.charAt( index + 1 ) );
+					buffer[ count++ ] = (byte) (0xF0 | (cp >> 18));
+					buffer[ count++ ] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+					buffer[ count++ ] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+					buffer[ count++ ] = (byte) (0x80 | (cp & 0x3F));
+				} else {
+					buffer[ count++ ] = '?';
+				}
+			} else if( Character.isLowSurrogate( c ) ) {
+				if( index == 0 || !Character.isHighSurrogate( s.charAt( index - 1 ) ) ) {
+					buffer[ count++ ] = '?';
+				}
+			} else {
+				buffer[ count++ ] = (byte) (0xE0 | (c >> 12));
+				buffer[ count++ ] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				buffer[ count++ ] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+
+		@Override
+		public void flush()
+			throws IOException {
+			if( count > 0 ) {
+				ostream.write( buffer, 0, count );
+				count = 0;
+			}
+			ostream.flush();
+		}
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.js;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import jolie.lang.NativeType;
+import jolie.lang.parse.ast.types.BasicTypeDefinition;
+import jolie.runtime.Value;
+import jolie.runtime.typing.BasicType;
+import jolie.runtime.typing.Type;
+import jolie.util.Range;
+
+class JsonCodecTests {
+	@Test
+	void testRoundTrip()
+		throws IOException {
+		final String json =
+			"{\"name\":\"Jolie\",\"tags\":[\"a\",\"b\"],\"nested\":{\"$\":\"root\",\"flag\":true},"
+				+ "\"matrix\":[[1,2],[3]],\"empty\":{},\"none\":null,\"ratio\":0.5}";
+		final Value value = read( json, null );
+		assertEquals( "Jolie", value.getFirstChild( "name" ).strValue() );
+		assertEquals( 2, value.getChildren( "tags" ).size() );
+		assertEquals( "root", value.getFirstChild( "nested" ).strValue() );
+		assertTrue( value.getFirstChild( "nested" ).getFirstChild( "flag" ).boolValue() );
+		// an array in a field becomes the vector of the field, nested arrays become "_" children
+		assertEquals( 3,
+			value.getChildren( "matrix" ).get( 1 ).getChildren( JsUtils.JSONARRAY_KEY ).first().intValue() );
+
+		// both writers produce the same text, which reads back into the same value
+		final String written = writeToString( value, null );
+		assertEquals( written, writeToBytes( value, null ) );
+		assertEquals( written, writeToString( read( written, null ), null ) );
+	}
+
+	@Test
+	void testEscapedFieldNames()
+		throws IOException {
+		final Value value = Value.create();
+		value.getFirstChild( "a/b" ).setValue( "say \"hi\"\n" );
+		value.getFirstChild( "back\\slash" ).setValue( 1 );
+
+		final String json = writeToString( value, null );
+		assertTrue( json.contains( "\"a\\/b\":\"say \\\"hi\\\"\\n\"" ), json );
+		assertTrue( json.contains( "\"back\\\\slash\":1" ), json );
+		assertEquals( json, writeToBytes( value, null ) );
+
+		final Value read = read( json, null );
+		assertEquals( "say \"hi\"\n", read.getFirstChild( "a/b" ).strValue() );
+		assertEquals( 1, read.getFirstChild( "back\\slash" ).intValue() );
+		assertEquals( "x/y", read( "{\"x\\/y\":\"\\u0041\"}", null ).children().keySet().iterator().next() );
+	}
+
+	@Test
+	void testNumbersTakeTheDeclaredType()
+		throws IOException {
+		final Map< String, Type > fields = new HashMap<>();
+		fields.put( "i", field( NativeType.INT ) );
+		fields.put( "l", field( NativeType.LONG ) );
+		fields.put( "d", field( NativeType.DOUBLE ) );
+		fields.put( "s", field( NativeType.STRING ) );
+		fields.put( "big", field( NativeType.INT ) );
+		fields.put( "huge", field( NativeType.LONG ) );
+		final Type type = Type.create( basic( NativeType.VOID ), new Range( 1, 1 ), false, fields );
+
+		final Value value = read(
+			"{\"i\":1,\"l\":2,\"d\":3,\"s\":4,\"big\":12345678901,\"huge\":123456789012345678901234}", type );
+		assertTrue( value.getFirstChild( "i" ).isInt() );
+		assertTrue( value.getFirstChild( "l" ).isLong() );
+		assertEquals( 2L, value.getFirstChild( "l" ).longValue() );
+		assertTrue( value.getFirstChild( "d" ).isDouble() );
+		assertEquals( 3.0, value.getFirstChild( "d" ).doubleValue() );
+		assertTrue( value.getFirstChild( "s" ).isString() );
+		assertEquals( "4", value.getFirstChild( "s" ).strValue() );
+		// an integer out of the range of the declared type is widened, up to a double
+		assertTrue( value.getFirstChild( "big" ).isLong() );
+		assertEquals( 12345678901L, value.getFirstChild( "big" ).longValue() );
+		assertTrue( value.getFirstChild( "huge" ).isDouble() );
+		assertEquals( 1.2345678901234568E23, value.getFirstChild( "huge" ).doubleValue() );
+
+		// without a type, integers are ints or longs depending on their size and decimals are doubles
+		final Value untyped = read( "{\"i\":1,\"l\":12345678901,\"d\":1.5e3,\"huge\":99999999999999999999}", null );
+		assertTrue( untyped.getFirstChild( "i" ).isInt() );
+		assertTrue( untyped.getFirstChild( "l" ).isLong() );
+		assertEquals( 1500.0, untyped.getFirstChild( "d" ).doubleValue() );
+		assertTrue( untyped.getFirstChild( "huge" ).isDouble() );
+
+		assertThrows( IOException.class, () -> read( "{\"i\":1-2}", null ) );
+	}
+
+	@Test
+	void testLoneSurrogates()
+		throws IOException {
+		final Value value = Value.create( "a\uD800b\uDC00c\uD83D\uDE00" );
+		// the byte writer cannot encode lone surrogates in UTF-8, so it replaces them
+		assertEquals( "\"a?b?c\uD83D\uDE00\"", writeToBytes( value, null ) );
+		// the string writer leaves them to the encoder that will eventually be used
+		assertEquals( "\"a\uD800b\uDC00c\uD83D\uDE00\"", writeToString( value, null ) );
+		assertEquals( "a?b?c\uD83D\uDE00", read( writeToBytes( value, null ), null ).strValue() );
+	}
+
+	@Test
+	void testRootSignHoldingStructures()
+		throws IOException {
+		final Value object = read( "{\"$\":{\"k\":[1,\"v\"]},\"x\":1}", null );
+		assertEquals( "{\"k\":[1,\"v\"]}", object.strValue() );
+		assertEquals( 1, object.getFirstChild( "x" ).intValue() );
+
+		final Value array = read( "{\"$\": [ 1, {\"a\": null} ] }", null );
+		assertEquals( "[1,{\"a\":null}]", array.strValue() );
+		assertTrue( array.children().isEmpty() );
+
+		// the JSON text is written back as a string
+		assertEquals( "{\"$\":\"[1,{\\\"a\\\":null}]\"}", writeToString( array, null, true ) );
+	}
+
+	private static Value read( String json, Type type )
+		throws IOException {
+		final Value value = Value.create();
+		new JsonReader( new StringReader( json ), false ).read( value, type );
+		return value;
+	}
+
+	private static String writeToString( Value value, Type type )
+		throws IOException {
+		return writeToString( value, type, false );
+	}
+
+	private static String writeToString( Value value, Type type, boolean extendedRoot )
+		throws IOException {
+		final StringBuilder builder = new StringBuilder();
+		final JsonWriter writer = JsonWriter.of( builder );
+		writer.writeValue( value, extendedRoot, type );
+		writer.flush();
+		return builder.toString();
+	}
+
+	private static String writeToBytes( Value value, Type type )
+		throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final JsonWriter writer = JsonWriter.of( bytes );
+		writer.writeValue( value, false, type );
+		writer.flush();
+		return bytes.toString( StandardCharsets.UTF_8 );
+	}
+
+	private static Type field( NativeType nativeType ) {
+		return Type.create( basic( nativeType ), new Range( 1, 1 ), false, null );
+	}
+
+	private static BasicType< ? > basic( NativeType nativeType ) {
+		return BasicType.fromBasicTypeDefinition( BasicTypeDefinition.of( nativeType ) );
+	}
+}
@@ -64,8 +64,8 @@ import jolie.runtime.ValueVector;
  * @author Fabrizio Montesi
  */
 public class XmlUtils {
-	private static final String JOLIE_TYPE_ATTRIBUTE = "_jolie_type";
-	private static final String FORCE_ATTRIBUTE = "@ForcedAttributes";
+	static final String JOLIE_TYPE_ATTRIBUTE = "_jolie_type";
+	static final String FORCE_ATTRIBUTE = "@ForcedAttributes";
 
 	public static final String PREFIX = "@Prefix";
 	public static final String NAMESPACE_ATTRIBUTE_NAME = "@Namespace";
@@ -111,7 +111,7 @@ public class XmlUtils {
 		_valueToDocument( value, element, document );
 	}
 
-	private static String getElementNameWithPrefix( Value value, String startingName ) {
+	static String getElementNameWithPrefix( Value value, String startingName ) {
 		String prefix = "";
 		if( value.hasChildren( PREFIX ) ) {
 			prefix = value.getFirstChild( PREFIX ).strValue();
@@ -149,6 +149,30 @@ public class XmlUtils {
 		String schemaFilename ) throws IOException {
 
 
+		String rootName = value.children().keySet().iterator().next();
+		XSType type = findRootType( value, schemaFilename );
+
+		if( type == null ) {
+			valueToDocument(
+				value.getFirstChild( rootName ),
+				rootName,
+				document );
+		} else {
+			valueToDocument(
+				value.getFirstChild( rootName ),
+				rootName,
+				document,
+				type );
+		}
+
+	}
+
+	/**
+	 * Returns the type declared in the given schema for the only child of the given value, or null if
+	 * there is no schema or no declaration for it.
+	 */
+	static XSType findRootType( Value value, String schemaFilename )
+		throws IOException {
 		String rootName = value.children().keySet().iterator().next();
 		Value root = value.children().get( rootName ).get( 0 );
 		String rootNameSpace = "";
@@ -172,21 +196,7 @@ public class XmlUtils {
 				throw new IOException( e );
 			}
 		}
-
-
-		if( type == null ) {
-			valueToDocument(
-				value.getFirstChild( rootName ),
-				rootName,
-				document );
-		} else {
-			valueToDocument(
-				value.getFirstChild( rootName ),
-				rootName,
-				document,
-				type );
-		}
-
+		return type;
 	}
 
 	/**
@@ -281,49 +291,7 @@ public class XmlUtils {
 	private static void _valueToDocument( Value value, Element element, Document doc, XSType type ) {
 		addForcedAttribute( value, element );
 		if( type.isSimpleType() ) {
-
-			if( type.asSimpleType().isRestriction()
-				&& type.asSimpleType().asRestriction().getBaseType() != null
-				&& type.asSimpleType().asRestriction().getBaseType().getName().equals( "decimal" )
-				&& type.asSimpleType().asRestriction().getDeclaredFacet( "pattern" ) != null
-				&& value.isDouble() ) {
-
-				String pattern = type.asSimpleType().asRestriction().getDeclaredFacet( "pattern" ).getValue().value;
-				Pattern patternForDigitNumber = Pattern.compile( ".*\\{(.*?)\\}" );
-				Matcher matcher = patternForDigitNumber.matcher( pattern );
-
-				Pattern patternForSeparator = Pattern.compile( ".*([,\\.])\\[0-9\\].*" );
-				Matcher matcherForSeparator = patternForSeparator.matcher( pattern );
-
-				if( matcher.find() ) {
-					String foundMinMax = matcher.group( 1 );
-					DecimalFormatSymbols symbols = new DecimalFormatSymbols();
-					if( matcherForSeparator.matches() ) {
-						symbols.setDecimalSeparator( matcherForSeparator.group( 1 ).charAt( 0 ) );
-					} else {
-						symbols.setDecimalSeparator( '.' );
-					}
-
-					// symbols.setGroupingSeparator( ); // TODO
-					DecimalFormat df = new DecimalFormat();
-
-					// at the present grouping is not managed
-					df.setGroupingUsed( false );
-					df.setDecimalFormatSymbols( symbols );
-
-					df.setMinimumFractionDigits( Integer.parseInt( foundMinMax.split( "," )[ 0 ] ) );
-
-					if( foundMinMax.split( "," ).length > 1 ) {
-						df.setMaximumFractionDigits( Integer.parseInt( foundMinMax.split( "," )[ 1 ] ) );
-					}
-					element.appendChild( doc.createTextNode( df.format( value.doubleValue() ) ) );
-				} else {
-					element.appendChild( doc.createTextNode( value.strValue() ) );
-				}
-			} else {
-				element.appendChild( doc.createTextNode( value.strValue() ) );
-			}
-
+			element.appendChild( doc.createTextNode( formatSimpleContent( value, type ) ) );
 		} else if( type.isComplexType() ) {
 			String name;
 			Value currValue;
@@ -358,6 +326,51 @@ public class XmlUtils {
 		}
 	}
 
+	/**
+	 * Returns the text of an element of a simple type holding the given value. Doubles are formatted
+	 * following the pattern facet of decimal restrictions, if any.
+	 */
+	static String formatSimpleContent( Value value, XSType type ) {
+		if( type.asSimpleType().isRestriction()
+			&& type.asSimpleType().asRestriction().getBaseType() != null
+			&& type.asSimpleType().asRestriction().getBaseType().getName().equals( "decimal" )
+			&& type.asSimpleType().asRestriction().getDeclaredFacet( "pattern" ) != null
+			&& value.isDouble() ) {
+
+			String pattern = type.asSimpleType().asRestriction().getDeclaredFacet( "pattern" ).getValue().value;
+			Pattern patternForDigitNumber = Pattern.compile( ".*\\{(.*?)\\}" );
+			Matcher matcher = patternForDigitNumber.matcher( pattern );
+
+			Pattern patternForSeparator = Pattern.compile( ".*([,\\.])\\[0-9\\].*" );
+			Matcher matcherForSeparator = patternForSeparator.matcher( pattern );
+
+			if( matcher.find() ) {
+				String foundMinMax = matcher.group( 1 );
+				DecimalFormatSymbols symbols = new DecimalFormatSymbols();
+				if( matcherForSeparator.matches() ) {
+					symbols.setDecimalSeparator( matcherForSeparator.group( 1 ).charAt( 0 ) );
+				} else {
+					symbols.setDecimalSeparator( '.' );
+				}
+
+				// symbols.setGroupingSeparator( ); // TODO
+				DecimalFormat df = new DecimalFormat();
+
+				// at the present grouping is not managed
+				df.setGroupingUsed( false );
+				df.setDecimalFormatSymbols( symbols );
+
+				df.setMinimumFractionDigits( Integer.parseInt( foundMinMax.split( "," )[ 0 ] ) );
+
+				if( foundMinMax.split( "," ).length > 1 ) {
+					df.setMaximumFractionDigits( Integer.parseInt( foundMinMax.split( "," )[ 1 ] ) );
+				}
+				return df.format( value.doubleValue() );
+			}
+		}
+		return value.strValue();
+	}
+
 	private static void _valueToDocument(
 		Value value,
 		Element element,
@@ -392,24 +405,11 @@ public class XmlUtils {
 		Element element,
 		Document doc ) {
 		// Supports only string, int, double and bool
-		if( value.isString() ) {
-			element.appendChild( doc.createTextNode( value.strValue() ) );
-			element.setAttribute( JOLIE_TYPE_ATTRIBUTE, "string" );
-		} else if( value.isInt() ) {
-			element.appendChild( doc.createTextNode( Integer.toString( value.intValue() ) ) );
-			element.setAttribute( JOLIE_TYPE_ATTRIBUTE, "int" );
-		} else if( value.isDouble() ) {
-			element.appendChild( doc.createTextNode( Double.toString( value.doubleValue() ) ) );
-			element.setAttribute( JOLIE_TYPE_ATTRIBUTE, "double" );
-		} else if( value.isLong() ) {
-			element.appendChild( doc.createTextNode( Long.toString( value.longValue() ) ) );
-			element.setAttribute( JOLIE_TYPE_ATTRIBUTE, "long" );
-		} else if( value.isBool() ) {
-			element.appendChild( doc.createTextNode( Boolean.toString( value.boolValue() ) ) );
-			element.setAttribute( JOLIE_TYPE_ATTRIBUTE, "bool" );
-		} else {
-			element.setAttribute( JOLIE_TYPE_ATTRIBUTE, "void" );
+		final String type = storageType( value );
+		if( !type.equals( "void" ) ) {
+			element.appendChild( doc.createTextNode( storageText( value ) ) );
 		}
+		element.setAttribute( JOLIE_TYPE_ATTRIBUTE, type );
 
 		// adding other attributes
 		Map< String, ValueVector > attrs = getAttributesOrNull( value );
@@ -434,6 +434,63 @@ public class XmlUtils {
 		}
 	}
 
+	/**
+	 * Returns the type annotation of a value in the storage format.
+	 */
+	static String storageType( Value value ) {
+		if( value.isString() ) {
+			return "string";
+		} else if( value.isInt() ) {
+			return "int";
+		} else if( value.isDouble() ) {
+			return "double";
+		} else if( value.isLong() ) {
+			return "long";
+		} else if( value.isBool() ) {
+			return "bool";
+		}
+		return "void";
+	}
+
+	/**
+	 * Returns the text of a value in the storage format.
+	 */
+	static String storageText( Value value ) {
+		if( value.isInt() ) {
+			return Integer.toString( value.intValue() );
+		} else if( value.isDouble() ) {
+			return Double.toString( value.doubleValue() );
+		} else if( value.isLong() ) {
+			return Long.toString( value.longValue() );
+		} else if( value.isBool() ) {
+			return Boolean.toString( value.boolValue() );
+		}
+		return value.strValue();
+	}
+
+	/**
+	 * Sets a value from its text in the storage format and its type annotation.
+	 */
+	static void setStorageValue( Value value, String type, String text ) {
+		switch( type ) {
+		case "string":
+			value.setValue( text );
+			break;
+		case "int":
+			value.setValue( Integer.valueOf( text ) );
+			break;
+		case "long":
+			value.setValue( Long.valueOf( text ) );
+			break;
+		case "double":
+			value.setValue( Double.valueOf( text ) );
+			break;
+		case "bool":
+			value.setValue( Boolean.valueOf( text ) );
+			break;
+		}
+	}
+
 	public static Map< String, ValueVector > getAttributesOrNull( Value value ) {
 		Map< String, ValueVector > ret = null;
 		ValueVector vec = value.children().get( Constants.Predefined.ATTRIBUTES.token().content() );
@@ -488,7 +545,7 @@ public class XmlUtils {
 			.getFirstChild( attrName );
 	}
 
-	private static Value getAttributeOrNull( Value value, String attributeName ) {
+	static Value getAttributeOrNull( Value value, String attributeName ) {
 		Value ret = null;
 		Map< String, ValueVector > attrs = getAttributesOrNull( value );
 		if( attrs != null ) {
@@ -564,23 +621,7 @@ public class XmlUtils {
 			}
 		}
 
-		switch( type ) {
-		case "string":
-			value.setValue( builder.toString() );
-			break;
-		case "int":
-			value.setValue( Integer.valueOf( builder.toString() ) );
-			break;
-		case "long":
-			value.setValue( Long.valueOf( builder.toString() ) );
-			break;
-		case "double":
-			value.setValue( Double.valueOf( builder.toString() ) );
-			break;
-		case "bool":
-			value.setValue( Boolean.valueOf( builder.toString() ) );
-			break;
-		}
+		setStorageValue( value, type, builder.toString() );
 	}
 
 	private static void elementsToSubValues( Value value, NodeList list, boolean includeAttributes,
@@ -0,0 +1,356 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import jolie.lang.Constants;
+import jolie.runtime.Value;
+
+/**
+ * Reads XML documents into Jolie values with a StAX parser, without building a DOM tree first.
+ *
+ * The resulting values are the same as the ones produced by
+ * {@link XmlUtils#documentToValue(org.w3c.dom.Document, Value, boolean, boolean)} and
+ * {@link XmlUtils#storageDocumentToValue(org.w3c.dom.Document, Value)} for a document parsed by a
+ * {@link javax.xml.parsers.DocumentBuilder} with the same namespace awareness.
+ */
+public class XmlValueReader {
+	private static final String ATTRIBUTES = Constants.Predefined.ATTRIBUTES.token().content();
+
+	private final XMLInputFactory factory;
+	private final boolean namespaceAware;
+	private final boolean allowDoctype;
+
+	/**
+	 * @param namespaceAware if true, elements and attributes are named by their local names and the
+	 *        prefix of elements is kept in {@link XmlUtils#PREFIX}; otherwise they are named by their
+	 *        qualified names
+	 */
+	public XmlValueReader( boolean namespaceAware ) {
+		this( namespaceAware, true );
+	}
+
+	/**
+	 * @param allowDoctype if false, documents with a document type declaration are rejected
+	 */
+	public XmlValueReader( boolean namespaceAware, boolean allowDoctype ) {
+		this.namespaceAware = namespaceAware;
+		this.allowDoctype = allowDoctype;
+		this.factory = XMLInputFactory.newInstance();
+		factory.setProperty( XMLInputFactory.IS_NAMESPACE_AWARE, namespaceAware );
+		factory.setProperty( XMLInputFactory.IS_COALESCING, false );
+		if( !allowDoctype ) {
+			factory.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+			factory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+		}
+	}
+
+	/**
+	 * Reads the document element of the given stream into a value.
+	 *
+	 * @param encoding the character encoding of the stream, or null to detect it
+	 * @return the name of the document element
+	 */
+	public String read( InputStream istream, String encoding, Value value, boolean includeAttributes,
+		boolean skipMixedText )
+		throws IOException {
+		try {
+			final XMLStreamReader reader = encoding == null
+				? factory.createXMLStreamReader( istream )
+				: factory.createXMLStreamReader( istream, encoding );
+			return readDocument( reader, value, includeAttributes, skipMixedText, false );
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	public String read( Reader source, Value value, boolean includeAttributes, boolean skipMixedText )
+		throws IOException {
+		try {
+			return readDocument( factory.createXMLStreamReader( source ), value, includeAttributes, skipMixedText,
+				false );
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	/**
+	 * Reads the document element of the given stream into a new child of the given value, named after
+	 * the element. The prefix of the element, if any, is kept in {@link XmlUtils#PREFIX}.
+	 *
+	 * @param encoding the character encoding of the stream, or null to detect it
+	 * @return the child holding the document element
+	 */
+	public Value readInto( InputStream istream, String encoding, Value parent, boolean includeAttributes,
+		boolean skipMixedText )
+		throws IOException {
+		try {
+			final XMLStreamReader reader = encoding == null
+				? factory.createXMLStreamReader( istream )
+				: factory.createXMLStreamReader( istream, encoding );
+			return readDocumentInto( reader, parent, includeAttributes, skipMixedText );
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	public Value readInto( Reader source, Value parent, boolean includeAttributes, boolean skipMixedText )
+		throws IOException {
+		try {
+			return readDocumentInto( factory.createXMLStreamReader( source ), parent, includeAttributes,
+				skipMixedText );
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	/**
+	 * Reads a document written in the type-annotated storage format (see
+	 * {@link XmlValueWriter#writeStorageDocument(Value, String)}).
+	 *
+	 * @return the name of the document element
+	 */
+	public String readStorage( InputStream istream, String encoding, Value value )
+		throws IOException {
+		try {
+			final XMLStreamReader reader = encoding == null
+				? factory.createXMLStreamReader( istream )
+				: factory.createXMLStreamReader( istream, encoding );
+			return readDocument( reader, value, true, false, true );
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	public String readStorage( Reader source, Value value )
+		throws IOException {
+		try {
+			return readDocument( factory.createXMLStreamReader( source ), value, true, false, true );
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	/**
+	 * Reads the element the given reader is positioned on (or the document element, if the reader is at
+	 * the start of a document). The reader is left on the corresponding end element.
+	 *
+	 * @return the name of the element
+	 */
+	public String readElement( XMLStreamReader reader, Value value, boolean includeAttributes,
+		boolean skipMixedText )
+		throws XMLStreamException {
+		while( reader.getEventType() != XMLStreamConstants.START_ELEMENT ) {
+			reader.next();
+		}
+		final String name = elementName( reader );
+		if( includeAttributes ) {
+			readAttributes( reader, value );
+		}
+		readContent( reader, value, includeAttributes, skipMixedText );
+		return name;
+	}
+
+	private String readDocument( XMLStreamReader reader, Value value, boolean includeAttributes,
+		boolean skipMixedText, boolean storage )
+		throws XMLStreamException {
+		try {
+			skipProlog( reader );
+			final String name = elementName( reader );
+			if( storage ) {
+				readStorageContent( reader, value, readStorageAttributes( reader, value ) );
+			} else {
+				if( includeAttributes ) {
+					readAttributes( reader, value );
+				}
+				readContent( reader, value, includeAttributes, skipMixedText );
+			}
+			return name;
+		} finally {
+			reader.close();
+		}
+	}
+
+	private Value readDocumentInto( XMLStreamReader reader, Value parent, boolean includeAttributes,
+		boolean skipMixedText )
+		throws XMLStreamException {
+		try {
+			skipProlog( reader );
+			final Value value = parent.getNewChild( elementName( reader ) );
+			if( namespaceAware && hasPrefix( reader ) ) {
+				value.getFirstChild( XmlUtils.PREFIX ).setValue( reader.getPrefix() );
+			}
+			if( includeAttributes ) {
+				readAttributes( reader, value );
+			}
+			readContent( reader, value, includeAttributes, skipMixedText );
+			return value;
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Moves the reader to the document element.
+	 */
+	private void skipProlog( XMLStreamReader reader )
+		throws XMLStreamException {
+		int event;
+		while( (event = reader.next()) != XMLStreamConstants.START_ELEMENT ) {
+			if( event == XMLStreamConstants.DTD && !allowDoctype ) {
+				throw new XMLStreamException( "DOCTYPE is disallowed", reader.getLocation() );
+			}
+		}
+	}
+
+	/**
+	 * Reads the content of the current element, up to its end element.
+	 */
+	private void readContent( XMLStreamReader reader, Value value, boolean includeAttributes,
+		boolean skipMixedText )
+		throws XMLStreamException {
+		StringBuilder text = null;
+		boolean hasSubNodes = false;
+		while( true ) {
+			switch( reader.next() ) {
+			case XMLStreamConstants.START_ELEMENT:
+				final Value child = value.getNewChild( elementName( reader ) );
+				if( includeAttributes ) {
+					if( namespaceAware && hasPrefix( reader ) ) {
+						child.getFirstChild( XmlUtils.PREFIX ).setValue( reader.getPrefix() );
+					}
+					readAttributes( reader, child );
+				}
+				readContent( reader, child, includeAttributes, skipMixedText );
+				hasSubNodes = true;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				if( text == null ) {
+					text = new StringBuilder();
+				}
+				text.append( reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength() );
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				if( text != null && text.length() > 0 && !(skipMixedText && hasSubNodes) ) {
+					value.setValue( text.toString() );
+				}
+				return;
+			default:
+				break;
+			}
+		}
+	}
+
+	private void readStorageContent( XMLStreamReader reader, Value value, String type )
+		throws XMLStreamException {
+		final StringBuilder text = new StringBuilder();
+		while( true ) {
+			switch( reader.next() ) {
+			case XMLStreamConstants.START_ELEMENT:
+				final Value child = value.getNewChild( elementName( reader ) );
+				readStorageContent( reader, child, readStorageAttributes( reader, child ) );
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				text.append( reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength() );
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				XmlUtils.setStorageValue( value, type, text.toString() );
+				return;
+			default:
+				break;
+			}
+		}
+	}
+
+	private void readAttributes( XMLStreamReader reader, Value value ) {
+		readNamespaceDeclarations( reader, value );
+		for( int i = 0; i < reader.getAttributeCount(); i++ ) {
+			setAttribute( value, attributeName( reader, i ), reader.getAttributeValue( i ) );
+		}
+	}
+
+	/**
+	 * Reads the attributes of an element in the storage format, returning the value of its type
+	 * attribute.
+	 */
+	private String readStorageAttributes( XMLStreamReader reader, Value value ) {
+		readNamespaceDeclarations( reader, value );
+		String type = "string";
+		for( int i = 0; i < reader.getAttributeCount(); i++ ) {
+			final String name = attributeName( reader, i );
+			if( XmlUtils.JOLIE_TYPE_ATTRIBUTE.equals( name ) ) {
+				type = reader.getAttributeValue( i );
+			} else {
+				setAttribute( value, name, reader.getAttributeValue( i ) );
+			}
+		}
+		return type;
+	}
+
+	/**
+	 * A DOM exposes namespace declarations as attributes: so do we, named as a namespace-aware DOM
+	 * names them (by their prefix, or "xmlns" for the default namespace).
+	 */
+	private void readNamespaceDeclarations( XMLStreamReader reader, Value value ) {
+		if( !namespaceAware ) {
+			// declarations are reported as plain attributes
+			return;
+		}
+		for( int i = 0; i < reader.getNamespaceCount(); i++ ) {
+			final String prefix = reader.getNamespacePrefix( i );
+			setAttribute( value, prefix == null || prefix.isEmpty() ? "xmlns" : prefix, reader.getNamespaceURI( i ) );
+		}
+	}
+
+	private static void setAttribute( Value value, String name, String attributeValue ) {
+		value.getFirstChild( ATTRIBUTES ).getFirstChild( name ).setValue( attributeValue );
+	}
+
+	private static boolean hasPrefix( XMLStreamReader reader ) {
+		return reader.getPrefix() != null && !reader.getPrefix().isEmpty();
+	}
+
+	private String elementName( XMLStreamReader reader ) {
+		if( namespaceAware || !hasPrefix( reader ) ) {
+			return reader.getLocalName();
+		}
+		return reader.getPrefix() + ':' + reader.getLocalName();
+	}
+
+	private String attributeName( XMLStreamReader reader, int index ) {
+		final String prefix = reader.getAttributePrefix( index );
+		if( namespaceAware || prefix == null || prefix.isEmpty() ) {
+			return reader.getAttributeLocalName( index );
+		}
+		return prefix + ':' + reader.getAttributeLocalName( index );
+	}
+}
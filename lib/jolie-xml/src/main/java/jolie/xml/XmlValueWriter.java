@@ -0,0 +1,478 @@
+/*
+ * Copyright (C) 2026 The Jolie Developers
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+
+package jolie.xml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.sun.xml.xsom.XSAttributeUse;
+import com.sun.xml.xsom.XSComplexType;
+import com.sun.xml.xsom.XSContentType;
+import com.sun.xml.xsom.XSElementDecl;
+import com.sun.xml.xsom.XSModelGroup;
+import com.sun.xml.xsom.XSModelGroupDecl;
+import com.sun.xml.xsom.XSParticle;
+import com.sun.xml.xsom.XSTerm;
+import com.sun.xml.xsom.XSType;
+
+import jolie.runtime.Value;
+import jolie.runtime.ValueVector;
+
+/**
+ * Writes Jolie values as XML with a StAX writer, without building a DOM tree first.
+ *
+ * The documents are the same as the ones obtained by serialising the result of the corresponding
+ * {@code XmlUtils.valueTo*Document} method, except that the given value is never modified.
+ */
+public class XmlValueWriter {
+	private static final XMLOutputFactory FACTORY = XMLOutputFactory.newInstance();
+	private static final String INDENT = "  ";
+
+	private final XMLStreamWriter writer;
+	private final String encoding;
+	private boolean indent = false;
+	private boolean omitXmlDeclaration = false;
+	private String doctypeSystem = null;
+	private int depth = 0;
+	private boolean hasChildElements = false;
+
+	private XmlValueWriter( XMLStreamWriter writer, String encoding ) {
+		this.writer = writer;
+		this.encoding = encoding;
+	}
+
+	/**
+	 * @param encoding the character encoding of the document, or null for UTF-8
+	 */
+	public static XmlValueWriter of( OutputStream ostream, String encoding )
+		throws IOException {
+		final String actualEncoding = encoding == null ? "UTF-8" : encoding;
+		try {
+			return new XmlValueWriter( FACTORY.createXMLStreamWriter( ostream, actualEncoding ), actualEncoding );
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	/**
+	 * @param encoding the encoding to declare in the XML declaration, or null for UTF-8
+	 */
+	public static XmlValueWriter of( Writer writer, String encoding )
+		throws IOException {
+		try {
+			return new XmlValueWriter( FACTORY.createXMLStreamWriter( writer ),
+				encoding == null ? "UTF-8" : encoding );
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	public XmlValueWriter indent( boolean indent ) {
+		this.indent = indent;
+		return this;
+	}
+
+	public XmlValueWriter omitXmlDeclaration( boolean omitXmlDeclaration ) {
+		this.omitXmlDeclaration = omitXmlDeclaration;
+		return this;
+	}
+
+	public XmlValueWriter doctypeSystem( String doctypeSystem ) {
+		this.doctypeSystem = doctypeSystem;
+		return this;
+	}
+
+	/**
+	 * Returns true if the given string can be used as the name of an element.
+	 */
+	public static boolean isName( String name ) {
+		if( name == null || name.isEmpty() ) {
+			return false;
+		}
+		final char first = name.charAt( 0 );
+		if( !(Character.isLetter( first ) || first == '_' || first == ':') ) {
+			return false;
+		}
+		for( int i = 1; i < name.length(); i++ ) {
+			final char c = name.charAt( i );
+			if( !(Character.isLetterOrDigit( c ) || c == '_' || c == ':' || c == '-' || c == '.' || c == '·') ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes a document whose root element holds the given value.
+	 *
+	 * @see XmlUtils#valueToDocument(Value, String, org.w3c.dom.Document)
+	 */
+	public void writeDocument( Value value, String rootNodeName )
+		throws IOException {
+		try {
+			startDocument( rootNodeName );
+			writeElement( value, rootNodeName );
+			endDocument();
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	/**
+	 * Writes a document whose root element has a single child element, which holds the given value.
+	 * This is the shape of the XML documents exchanged by the HTTP protocol for faults.
+	 */
+	public void writeDocument( Value value, String rootNodeName, String elementName )
+		throws IOException {
+		try {
+			startDocument( rootNodeName );
+			startElement( rootNodeName, false );
+			writeElement( value, elementName );
+			endElement( false );
+			endDocument();
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	/**
+	 * Writes a document whose root element holds the given value, following the given XML type
+	 * definition. Element names take the prefix in {@link XmlUtils#PREFIX}; if
+	 * {@link XmlUtils#NAMESPACE_ATTRIBUTE_NAME} is set, the namespace is declared on the element.
+	 *
+	 * @see XmlUtils#valueToDocument(Value, String, org.w3c.dom.Document, XSType)
+	 */
+	public void writeDocument( Value value, String rootNodeName, XSType type )
+		throws IOException {
+		try {
+			final String name = XmlUtils.getElementNameWithPrefix( value, rootNodeName );
+			startDocument( name );
+			startElement( name, isEmpty( value, type ) );
+			writeElement( value, type );
+			endElement( isEmpty( value, type ) );
+			endDocument();
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	/**
+	 * Writes a document holding the only child of the given value, following the declaration of that
+	 * child in the given schema, if any.
+	 *
+	 * @see XmlUtils#valueToDocument(Value, org.w3c.dom.Document, String)
+	 */
+	public void writeDocumentWithSchema( Value value, String schemaFilename )
+		throws IOException {
+		final String rootName = value.children().keySet().iterator().next();
+		final XSType type = XmlUtils.findRootType( value, schemaFilename );
+		if( type == null ) {
+			writeDocument( value.getFirstChild( rootName ), rootName );
+		} else {
+			writeDocument( value.getFirstChild( rootName ), rootName, type );
+		}
+	}
+
+	/**
+	 * Writes a document in the type-annotated storage format.
+	 *
+	 * @see XmlUtils#valueToStorageDocument(Value, String, org.w3c.dom.Document)
+	 */
+	public void writeStorageDocument( Value value, String rootNodeName )
+		throws IOException {
+		try {
+			startDocument( rootNodeName );
+			writeStorageElement( value, rootNodeName );
+			endDocument();
+		} catch( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	private void writeElement( Value value, String name )
+		throws XMLStreamException {
+		final Map< String, ValueVector > attributes = XmlUtils.getAttributesOrNull( value );
+		final String text = value.strValue();
+		final boolean empty = text.isEmpty() && !hasElementChildren( value );
+		startElement( name, empty );
+		for( Entry< String, ValueVector > attribute : attributes.entrySet() ) {
+			writer.writeAttribute( attribute.getKey(), attribute.getValue().first().strValue() );
+		}
+		if( !text.isEmpty() ) {
+			writer.writeCharacters( text );
+		}
+		for( Entry< String, ValueVector > entry : value.children().entrySet() ) {
+			if( !entry.getKey().startsWith( "@" ) ) {
+				for( Value child : entry.getValue() ) {
+					writeElement( child, entry.getKey() );
+				}
+			}
+		}
+		endElement( empty );
+	}
+
+	private void writeStorageElement( Value value, String name )
+		throws XMLStreamException {
+		final boolean empty = !hasElementChildren( value ) && storageText( value ).isEmpty();
+		startElement( name, empty );
+		writer.writeAttribute( XmlUtils.JOLIE_TYPE_ATTRIBUTE, XmlUtils.storageType( value ) );
+		for( Entry< String, ValueVector > attribute : XmlUtils.getAttributesOrNull( value ).entrySet() ) {
+			writer.writeAttribute( attribute.getKey(), attribute.getValue().first().strValue() );
+		}
+		final String text = storageText( value );
+		if( !text.isEmpty() ) {
+			writer.writeCharacters( text );
+		}
+		for( Entry< String, ValueVector > entry : value.children().entrySet() ) {
+			if( !entry.getKey().startsWith( "@" ) ) {
+				for( Value child : entry.getValue() ) {
+					writeStorageElement( child, entry.getKey() );
+				}
+			}
+		}
+		endElement( empty );
+	}
+
+	private static String storageText( Value value ) {
+		return "void".equals( XmlUtils.storageType( value ) ) ? "" : XmlUtils.storageText( value );
+	}
+
+	/**
+	 * Writes the attributes and the content of the current element, following the given type.
+	 */
+	private void writeElement( Value value, XSType type )
+		throws XMLStreamException {
+		writeForcedAttributes( value );
+		if( type.isSimpleType() ) {
+			final String text = XmlUtils.formatSimpleContent( value, type );
+			if( !text.isEmpty() ) {
+				writer.writeCharacters( text );
+			}
+		} else if( type.isComplexType() ) {
+			final XSComplexType complexType = type.asComplexType();
+			final Collection< ? extends XSAttributeUse > attributeUses = complexType.getAttributeUses();
+			for( XSAttributeUse attrUse : attributeUses ) {
+				final String name = attrUse.getDecl().getName();
+				final Value attribute = XmlUtils.getAttributeOrNull( value, name );
+				if( attribute != null ) {
+					writer.writeAttribute( name, attribute.strValue() );
+				}
+			}
+			final XSContentType contentType = complexType.getContentType();
+			final XSModelGroup modelGroup = modelGroupOf( contentType );
+			if( contentType.asSimpleType() != null ) {
+				if( !value.strValue().isEmpty() ) {
+					writer.writeCharacters( value.strValue() );
+				}
+			} else if( modelGroup != null ) {
+				writeModelGroup( value, modelGroup, new HashMap<>() );
+			}
+		}
+	}
+
+	private static XSModelGroup modelGroupOf( XSContentType contentType ) {
+		final XSParticle particle = contentType.asParticle();
+		if( particle == null ) {
+			return null;
+		}
+		final XSTerm term = particle.getTerm();
+		final XSModelGroupDecl modelGroupDecl = term.asModelGroupDecl();
+		if( modelGroupDecl != null ) {
+			return modelGroupDecl.getModelGroup();
+		} else if( term.isModelGroup() ) {
+			return term.asModelGroup();
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the children of a value that are declared in a model group. The children written so far
+	 * are counted in {@code consumed}, so that each child is written once even if its name appears in
+	 * several particles.
+	 */
+	private void writeModelGroup( Value value, XSModelGroup modelGroup, Map< String, Integer > consumed )
+		throws XMLStreamException {
+		final XSModelGroup.Compositor compositor = modelGroup.getCompositor();
+		if( compositor.equals( XSModelGroup.SEQUENCE ) ) {
+			for( XSParticle particle : modelGroup.getChildren() ) {
+				final XSTerm term = particle.getTerm();
+				if( term.isElementDecl() ) {
+					final XSElementDecl elementDecl = term.asElementDecl();
+					final String name = elementDecl.getName();
+					final ValueVector vec = value.children().get( name );
+					if( vec != null ) {
+						int k = 0;
+						int next = consumed.getOrDefault( name, 0 );
+						while( next < vec.size()
+							&& (particle.getMaxOccurs() == XSParticle.UNBOUNDED || particle.getMaxOccurs() > k) ) {
+							writeTypedChild( vec.get( next ), name, elementDecl.getType() );
+							next++;
+							k++;
+						}
+						consumed.put( name, next );
+					}
+				} else if( term.isModelGroupDecl() ) {
+					writeModelGroup( value, term.asModelGroupDecl().getModelGroup(), consumed );
+				} else if( term.isModelGroup() ) {
+					writeModelGroup( value, term.asModelGroup(), consumed );
+				}
+			}
+		} else if( compositor.equals( XSModelGroup.CHOICE ) ) {
+			boolean found = false;
+			for( XSParticle particle : modelGroup.getChildren() ) {
+				if( found ) {
+					break;
+				}
+				final XSTerm term = particle.getTerm();
+				if( term.isElementDecl() ) {
+					final XSElementDecl elementDecl = term.asElementDecl();
+					final String name = elementDecl.getName();
+					final ValueVector vec = value.children().get( name );
+					final int next = consumed.getOrDefault( name, 0 );
+					if( vec != null && next < vec.size() ) {
+						found = true;
+						writeTypedChild( vec.get( next ), name, elementDecl.getType() );
+						consumed.put( name, next + 1 );
+					}
+				} else if( term.isModelGroupDecl() ) {
+					writeModelGroup( value, term.asModelGroupDecl().getModelGroup(), consumed );
+				} else if( term.isModelGroup() ) {
+					writeModelGroup( value, term.asModelGroup(), consumed );
+				}
+			}
+		}
+	}
+
+	private void writeTypedChild( Value child, String name, XSType type )
+		throws XMLStreamException {
+		final boolean empty = isEmpty( child, type );
+		startElement( XmlUtils.getElementNameWithPrefix( child, name ), empty );
+		writeElement( child, type );
+		endElement( empty );
+	}
+
+	private void writeForcedAttributes( Value value )
+		throws XMLStreamException {
+		boolean namespaceDeclared = false;
+		final String prefix = value.hasChildren( XmlUtils.PREFIX ) ? value.getFirstChild( XmlUtils.PREFIX ).strValue()
+			: "";
+		final String namespaceAttribute = prefix.isEmpty() ? "xmlns" : "xmlns:" + prefix;
+		if( value.hasChildren( XmlUtils.FORCE_ATTRIBUTE ) ) {
+			for( Entry< String, ValueVector > attribute : value.getFirstChild( XmlUtils.FORCE_ATTRIBUTE ).children()
+				.entrySet() ) {
+				writer.writeAttribute( attribute.getKey(), attribute.getValue().get( 0 ).strValue() );
+				namespaceDeclared |= attribute.getKey().equals( namespaceAttribute );
+			}
+		}
+		if( !namespaceDeclared && value.hasChildren( XmlUtils.NAMESPACE_ATTRIBUTE_NAME ) ) {
+			writer.writeAttribute( namespaceAttribute,
+				value.getFirstChild( XmlUtils.NAMESPACE_ATTRIBUTE_NAME ).strValue() );
+		}
+	}
+
+	/**
+	 * Returns true if an element holding the given value would have no content.
+	 */
+	private static boolean isEmpty( Value value, XSType type ) {
+		if( type.isSimpleType() ) {
+			return XmlUtils.formatSimpleContent( value, type ).isEmpty();
+		} else if( type.isComplexType() ) {
+			final XSContentType contentType = type.asComplexType().getContentType();
+			if( contentType.asSimpleType() != null ) {
+				return value.strValue().isEmpty();
+			}
+			return modelGroupOf( contentType ) == null || !hasElementChildren( value );
+		}
+		return true;
+	}
+
+	private static boolean hasElementChildren( Value value ) {
+		for( Entry< String, ValueVector > entry : value.children().entrySet() ) {
+			if( !entry.getKey().startsWith( "@" ) && !entry.getValue().isEmpty() ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void startDocument( String rootName )
+		throws XMLStreamException {
+		if( !omitXmlDeclaration ) {
+			writer.writeStartDocument( encoding, "1.0" );
+		}
+		if( doctypeSystem != null ) {
+			newLine();
+			writer.writeDTD( "<!DOCTYPE " + rootName + " SYSTEM \"" + doctypeSystem + "\">" );
+		}
+	}
+
+	private void endDocument()
+		throws XMLStreamException {
+		writer.writeEndDocument();
+		writer.flush();
+	}
+
+	private void startElement( String name, boolean empty )
+		throws XMLStreamException {
+		if( indent && (depth > 0 || !omitXmlDeclaration || doctypeSystem != null) ) {
+			newLine();
+		}
+		if( empty ) {
+			writer.writeEmptyElement( name );
+			hasChildElements = true;
+		} else {
+			writer.writeStartElement( name );
+			depth++;
+			hasChildElements = false;
+		}
+	}
+
+	private void endElement( boolean empty )
+		throws XMLStreamException {
+		if( empty ) {
+			return;
+		}
+		depth--;
+		if( indent && hasChildElements ) {
+			newLine();
+		}
+		writer.writeEndElement();
+		hasChildElements = true;
+	}
+
+	private void newLine()
+		throws XMLStreamException {
+		if( indent ) {
+			writer.writeCharacters( "\n" );
+			for( int i = 0; i < depth; i++ ) {
+				writer.writeCharacters( INDENT );
+			}
+		}
+	}
+}